@@ -0,0 +1,70 @@
+package com.audition.benchmark;
+
+import com.audition.configuration.CachingAuthenticationProvider;
+import com.audition.configuration.CredentialCacheProperties;
+import com.github.benmanes.caffeine.cache.Ticker;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+
+/*
+Cost of authenticating one basic auth request, as SecurityConfig sets it up: the password check of the
+DaoAuthenticationProvider alone and behind the credential cache once the credentials have been verified.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class AuthenticationBenchmark {
+
+    private static final String USERNAME = "admin";
+    private static final String PASSWORD = "admin123";
+
+    // How the configured password is stored, bcrypt is the default encoding of Spring Security.
+    @Param({"noop", "bcrypt"})
+    public String encoding;
+
+    private AuthenticationProvider daoProvider;
+    private AuthenticationProvider cachingProvider;
+
+    @Setup
+    public void setUp() {
+        final PasswordEncoder passwordEncoder = PasswordEncoderFactories.createDelegatingPasswordEncoder();
+        final String password = "noop".equals(encoding) ? "{noop}" + PASSWORD : passwordEncoder.encode(PASSWORD);
+        final DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(new InMemoryUserDetailsManager(
+            User.withUsername(USERNAME).password(password).roles("USER").build()));
+        provider.setPasswordEncoder(passwordEncoder);
+        daoProvider = provider;
+        cachingProvider = new CachingAuthenticationProvider(provider, new CredentialCacheProperties(),
+            Ticker.systemTicker());
+        cachingProvider.authenticate(token());
+    }
+
+    @Benchmark
+    public Authentication passwordCheck() {
+        return daoProvider.authenticate(token());
+    }
+
+    @Benchmark
+    public Authentication cachedCredentials() {
+        return cachingProvider.authenticate(token());
+    }
+
+    private static UsernamePasswordAuthenticationToken token() {
+        return UsernamePasswordAuthenticationToken.unauthenticated(USERNAME, PASSWORD);
+    }
+}
@@ -0,0 +1,75 @@
+package com.audition.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.helpers.NOPAppender;
+import com.audition.model.AuditionPost;
+import com.audition.model.Comment;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import org.slf4j.LoggerFactory;
+
+/*
+Test data and wiring shared by the benchmarks. Components are created without a Spring context, @Autowired fields are
+set through reflection during setup so it is not part of the measurement.
+ */
+public final class Fixtures {
+
+    private static final String[] WORDS = {"lorem", "ipsum", "dolor", "sit", "amet", "consectetur", "adipiscing",
+        "elit", "sed", "do", "eiusmod", "tempor", "incididunt", "ut", "labore", "et", "dolore", "magna", "aliqua"};
+
+    private Fixtures() {
+    }
+
+    static List<AuditionPost> posts(final int count) {
+        final List<AuditionPost> posts = new ArrayList<>(count);
+        for (int id = 1; id <= count; id++) {
+            posts.add(new AuditionPost(id % 10 + 1, id, "title " + id + " " + words(id, 4), words(id * 31, 20), null));
+        }
+        return posts;
+    }
+
+    static List<Comment> comments(final int count) {
+        final List<Comment> comments = new ArrayList<>(count);
+        for (int id = 1; id <= count; id++) {
+            comments.add(new Comment(id / 5 + 1, id, words(id, 3), "user" + id + "@example.com", words(id * 17, 25)));
+        }
+        return comments;
+    }
+
+    public static void setField(final Object target, final String name, final Object value) {
+        try {
+            final Field field = target.getClass().getDeclaredField(name);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot set " + name + " on " + target.getClass().getName(), e);
+        }
+    }
+
+    // Keeps log output out of the measurement: events are still created at the given level but not written.
+    public static void discardLogs(final Level level) {
+        final LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        final Logger root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        root.detachAndStopAllAppenders();
+        final NOPAppender<ILoggingEvent> appender = new NOPAppender<>();
+        appender.setContext(context);
+        appender.start();
+        root.addAppender(appender);
+        root.setLevel(level);
+    }
+
+    private static String words(final int seed, final int count) {
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                builder.append(' ');
+            }
+            builder.append(WORDS[Math.floorMod(seed * 7 + i * 13, WORDS.length)]);
+        }
+        return builder.toString();
+    }
+}
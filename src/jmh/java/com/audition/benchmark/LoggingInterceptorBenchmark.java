@@ -0,0 +1,122 @@
+package com.audition.benchmark;
+
+import ch.qos.logback.classic.Level;
+import com.audition.common.logging.AuditionLogger;
+import com.audition.common.logging.LoggingInterceptor;
+import com.audition.configuration.UpstreamLoggingProperties;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+
+/*
+One upstream call through LoggingInterceptor: the response body is read to the end and closed, as RestTemplate does.
+Compares logging disabled (WARN), INFO without sampling and INFO with every call sampled.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class LoggingInterceptorBenchmark {
+
+    private static final byte[] EMPTY = new byte[0];
+
+    @Param({"WARN", "INFO"})
+    private String level;
+
+    @Param({"0.0", "0.01", "1.0"})
+    private double successSampleRate;
+
+    @Param({"256", "16384"})
+    private int bodySize;
+
+    private LoggingInterceptor interceptor;
+    private HttpRequest request;
+    private ClientHttpRequestExecution execution;
+    private final byte[] buffer = new byte[8192];
+
+    @Setup
+    public void setUp() {
+        Fixtures.discardLogs(Level.toLevel(level));
+        final UpstreamLoggingProperties properties = new UpstreamLoggingProperties();
+        properties.setSuccessSampleRate(successSampleRate);
+        interceptor = new LoggingInterceptor(new AuditionLogger(), properties);
+
+        final byte[] payload = new byte[bodySize];
+        Arrays.fill(payload, (byte) 'x');
+        final HttpHeaders responseHeaders = new HttpHeaders();
+        responseHeaders.setContentType(MediaType.APPLICATION_JSON);
+        final URI uri = URI.create("https://jsonplaceholder.typicode.com/posts/1");
+        request = new HttpRequest() {
+            @Override
+            public HttpMethod getMethod() {
+                return HttpMethod.GET;
+            }
+
+            @Override
+            public URI getURI() {
+                return uri;
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return HttpHeaders.EMPTY;
+            }
+        };
+        execution = (httpRequest, body) -> new ClientHttpResponse() {
+            @Override
+            public HttpStatusCode getStatusCode() {
+                return HttpStatus.OK;
+            }
+
+            @Override
+            public String getStatusText() {
+                return "OK";
+            }
+
+            @Override
+            public void close() {
+            }
+
+            @Override
+            public InputStream getBody() {
+                return new ByteArrayInputStream(payload);
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return responseHeaders;
+            }
+        };
+    }
+
+    @Benchmark
+    public long intercept() throws IOException {
+        long total = 0;
+        try (ClientHttpResponse response = interceptor.intercept(request, EMPTY, execution)) {
+            final InputStream body = response.getBody();
+            int count;
+            while ((count = body.read(buffer)) > 0) {
+                total += count;
+            }
+        }
+        return total;
+    }
+}
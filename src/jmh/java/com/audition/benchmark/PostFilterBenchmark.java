@@ -0,0 +1,71 @@
+package com.audition.benchmark;
+
+import ch.qos.logback.classic.Level;
+import com.audition.configuration.UpstreamCacheProperties;
+import com.audition.integration.AuditionIntegrationClient;
+import com.audition.model.AuditionPost;
+import com.audition.service.AuditionService;
+import com.audition.web.AuditionController;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.web.client.RestTemplate;
+
+/*
+AuditionController.getPosts() on a warm posts cache for each filter combination. The upstream client returns a fixed
+list, so only query compilation, index lookups and matching are measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class PostFilterBenchmark {
+
+    @Param({"100", "10000"})
+    private int size;
+
+    @Param({"none", "userId", "id", "titleLike", "bodyLike", "userId+titleLike", "all"})
+    private String filter;
+
+    private AuditionController controller;
+    private Integer userId;
+    private Integer id;
+    private String titleLike;
+    private String bodyLike;
+
+    @Setup
+    public void setUp() {
+        Fixtures.discardLogs(Level.WARN);
+        final List<AuditionPost> posts = Fixtures.posts(size);
+        final AuditionIntegrationClient client = new AuditionIntegrationClient(new RestTemplate()) {
+            @Override
+            public List<AuditionPost> getPosts() {
+                return posts;
+            }
+        };
+        final AuditionService service = new AuditionService(client, new UpstreamCacheProperties(),
+            new SimpleMeterRegistry());
+        controller = new AuditionController();
+        Fixtures.setField(controller, "auditionService", service);
+
+        final boolean all = "all".equals(filter);
+        userId = all || filter.contains("userId") ? 3 : null;
+        id = all || "id".equals(filter) ? size / 2 : null;
+        titleLike = all || filter.contains("titleLike") ? "dolor" : null;
+        bodyLike = all || "bodyLike".equals(filter) ? "magna aliqua" : null;
+        // Loads the posts cache and its indexes.
+        getPosts();
+    }
+
+    @Benchmark
+    public List<AuditionPost> getPosts() {
+        return controller.getPosts(userId, id, titleLike, bodyLike, null, null, null);
+    }
+}
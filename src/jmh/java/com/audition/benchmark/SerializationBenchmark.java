@@ -0,0 +1,77 @@
+package com.audition.benchmark;
+
+import com.audition.configuration.WebServiceConfiguration;
+import com.audition.model.AuditionPost;
+import com.audition.model.Comment;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/*
+Jackson (de)serialization of post and comment lists with the application ObjectMapper, as done for upstream responses
+and for /posts and /comments/{postId} responses.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class SerializationBenchmark {
+
+    @Param({"100", "10000", "1000000"})
+    private int size;
+
+    private List<AuditionPost> posts;
+    private List<Comment> comments;
+    private byte[] postsJson;
+    private byte[] commentsJson;
+    private ObjectWriter writer;
+    private ObjectReader postsReader;
+    private ObjectReader commentsReader;
+
+    @Setup
+    public void setUp() throws IOException {
+        final ObjectMapper objectMapper = new WebServiceConfiguration().objectMapper();
+        writer = objectMapper.writer();
+        postsReader = objectMapper.readerFor(new TypeReference<List<AuditionPost>>() {
+        });
+        commentsReader = objectMapper.readerFor(new TypeReference<List<Comment>>() {
+        });
+        posts = Fixtures.posts(size);
+        comments = Fixtures.comments(size);
+        postsJson = writer.writeValueAsBytes(posts);
+        commentsJson = writer.writeValueAsBytes(comments);
+    }
+
+    @Benchmark
+    public byte[] serializePosts() throws IOException {
+        return writer.writeValueAsBytes(posts);
+    }
+
+    @Benchmark
+    public List<AuditionPost> deserializePosts() throws IOException {
+        return postsReader.readValue(postsJson);
+    }
+
+    @Benchmark
+    public byte[] serializeComments() throws IOException {
+        return writer.writeValueAsBytes(comments);
+    }
+
+    @Benchmark
+    public List<Comment> deserializeComments() throws IOException {
+        return commentsReader.readValue(commentsJson);
+    }
+}
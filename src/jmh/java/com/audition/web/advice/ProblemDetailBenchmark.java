@@ -0,0 +1,70 @@
+package com.audition.web.advice;
+
+import ch.qos.logback.classic.Level;
+import com.audition.benchmark.Fixtures;
+import com.audition.common.exception.SystemException;
+import com.audition.common.logging.AuditionLogger;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.ProblemDetail;
+
+/*
+ProblemDetail creation in ExceptionControllerAdvice, once for a prepared exception and once including the construction
+of the exception as it happens for every failed request. Client errors (404, 400) are raised without a stack trace
+through SystemException.clientError, upstream failures with one, both are measured. Lives in the package of the advice
+so that the handlers are called directly.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class ProblemDetailBenchmark {
+
+    private ExceptionControllerAdvice advice;
+    private SystemException notFound;
+    private SystemException unmappedStatus;
+    private IllegalStateException unexpected;
+
+    @Setup
+    public void setUp() {
+        Fixtures.discardLogs(Level.INFO);
+        advice = new ExceptionControllerAdvice();
+        Fixtures.setField(advice, "logger", new AuditionLogger());
+        notFound = SystemException.clientError("Cannot find a Post with id 1", "Resource Not Found", 404);
+        unmappedStatus = new SystemException("Upstream failure", "Upstream Error", 999);
+        unexpected = new IllegalStateException("Unexpected failure");
+    }
+
+    @Benchmark
+    public ProblemDetail systemException() {
+        return advice.handleSystemException(notFound);
+    }
+
+    @Benchmark
+    public ProblemDetail systemExceptionWithUnmappedStatus() {
+        return advice.handleSystemException(unmappedStatus);
+    }
+
+    @Benchmark
+    public ProblemDetail unexpectedException() {
+        return advice.handleMainException(unexpected);
+    }
+
+    // The 404 and 400 responses of the api, created without a stack trace.
+    @Benchmark
+    public ProblemDetail throwAndHandleClientError() {
+        return advice.handleSystemException(
+            SystemException.clientError("Cannot find a Post with id 1", "Resource Not Found", 404));
+    }
+
+    // Upstream and server errors, created with a full stack trace.
+    @Benchmark
+    public ProblemDetail throwAndHandleSystemException() {
+        return advice.handleSystemException(new SystemException("Upstream failure", "Bad Gateway", 502));
+    }
+}
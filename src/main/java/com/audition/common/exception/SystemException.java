@@ -59,4 +59,20 @@ public class SystemException extends RuntimeException {
         this.title = title;
         this.detail = detail;
     }
+
+    protected SystemException(final String detail, final String title, final Integer errorCode,
+        final boolean writableStackTrace) {
+        super(detail, null, false, writableStackTrace);
+        this.statusCode = errorCode;
+        this.title = title;
+        this.detail = detail;
+    }
+
+    /*
+    Expected client errors (invalid input, missing resources) are answered as they are and never logged with a trace,
+    so the stack trace is not filled in. Invalid ids from scanners then cost about as much as a found post.
+     */
+    public static SystemException clientError(final String detail, final String title, final Integer errorCode) {
+        return new SystemException(detail, title, errorCode, false);
+    }
 }
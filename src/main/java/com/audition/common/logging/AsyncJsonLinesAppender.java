@@ -0,0 +1,279 @@
+package com.audition.common.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.IThrowableProxy;
+import ch.qos.logback.classic.spi.ThrowableProxyUtil;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.event.KeyValuePair;
+
+/*
+Writes log events as JSON lines from a background thread. Request threads only put the event into a bounded ring buffer;
+the writer thread takes up to batchSize events at a time, encodes them and writes and flushes them in one go.
+
+When the buffer is full, events at neverDropLevel or above wait up to maxBlockMillis for space, other events are dropped
+according to dropPolicy: DROP_NEWEST discards the incoming event, DROP_OLDEST makes room by discarding the oldest queued
+event below neverDropLevel. Dropped events and the queue depth are exported as metrics by AsyncLogMetrics.
+
+Writes to file when one is configured, otherwise to standard out. Rolling is left to the platform (e.g. logrotate with
+copytruncate), the file is opened in append mode.
+ */
+public class AsyncJsonLinesAppender extends UnsynchronizedAppenderBase<ILoggingEvent> {
+
+    public enum DropPolicy {
+        DROP_NEWEST,
+        DROP_OLDEST
+    }
+
+    private static final int MAX_STOP_WAIT_MILLIS = 2_000;
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder written = new LongAdder();
+
+    private int queueSize = 8_192;
+    private int batchSize = 256;
+    private long flushIntervalMillis = 200;
+    private long maxBlockMillis = 100;
+    private DropPolicy dropPolicy = DropPolicy.DROP_NEWEST;
+    private Level neverDropLevel = Level.WARN;
+    private String file;
+
+    private BlockingQueue<ILoggingEvent> queue;
+    private OutputStream out;
+    private Thread writer;
+
+    @Override
+    public void start() {
+        if (queueSize < 1 || batchSize < 1) {
+            addError("queueSize and batchSize must be positive for appender " + getName());
+            return;
+        }
+        try {
+            out = openOutput();
+        } catch (IOException e) {
+            addError("Could not open log file " + file, e);
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(queueSize);
+        writer = new Thread(this::drain, "log-writer-" + getName());
+        writer.setDaemon(true);
+        super.start();
+        writer.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        // The writer drains what is queued once it sees the appender stopped.
+        super.stop();
+        try {
+            writer.join(MAX_STOP_WAIT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (file != null) {
+            try {
+                out.close();
+            } catch (IOException e) {
+                addError("Could not close log file " + file, e);
+            }
+        }
+    }
+
+    @Override
+    protected void append(final ILoggingEvent event) {
+        // Message, MDC and key/value pairs are captured now, the event is encoded on the writer thread.
+        event.prepareForDeferredProcessing();
+        if (queue.offer(event)) {
+            return;
+        }
+        if (event.getLevel().isGreaterOrEqual(neverDropLevel)) {
+            try {
+                if (queue.offer(event, maxBlockMillis, TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        } else if (dropPolicy == DropPolicy.DROP_OLDEST) {
+            if (evictOldestBelow(queue, neverDropLevel)) {
+                dropped.increment();
+            }
+            if (queue.offer(event)) {
+                return;
+            }
+        }
+        dropped.increment();
+    }
+
+    /*
+    Removes the oldest queued event below the given level. Events at or above it are never evicted, when the queue holds
+    nothing else the incoming event is the one that is dropped.
+     */
+    static boolean evictOldestBelow(final BlockingQueue<ILoggingEvent> queue, final Level level) {
+        for (final ILoggingEvent queued : queue) {
+            if (!queued.getLevel().isGreaterOrEqual(level)) {
+                // False when the writer took the event in the meantime, which made room just as well.
+                return queue.remove(queued);
+            }
+        }
+        return false;
+    }
+
+    private void drain() {
+        final List<ILoggingEvent> batch = new ArrayList<>(batchSize);
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream(batchSize * 256);
+        while (isStarted()) {
+            try {
+                final ILoggingEvent first = queue.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                    write(batch, buffer);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        while (queue.drainTo(batch, batchSize) > 0) {
+            write(batch, buffer);
+        }
+    }
+
+    private void write(final List<ILoggingEvent> batch, final ByteArrayOutputStream buffer) {
+        buffer.reset();
+        try {
+            try (JsonGenerator generator = jsonFactory.createGenerator(buffer)) {
+                for (final ILoggingEvent event : batch) {
+                    encode(generator, event);
+                    generator.writeRaw('\n');
+                }
+            }
+            buffer.writeTo(out);
+            out.flush();
+            written.add(batch.size());
+        } catch (IOException | RuntimeException e) {
+            dropped.add(batch.size());
+            addError("Could not write " + batch.size() + " log events", e);
+        } finally {
+            batch.clear();
+        }
+    }
+
+    private static void encode(final JsonGenerator generator, final ILoggingEvent event) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("timestamp", Instant.ofEpochMilli(event.getTimeStamp()).toString());
+        generator.writeStringField("level", event.getLevel().toString());
+        generator.writeStringField("logger", event.getLoggerName());
+        generator.writeStringField("thread", event.getThreadName());
+        generator.writeStringField("message", event.getFormattedMessage());
+        // Holds traceId and spanId while a request is traced.
+        for (final Map.Entry<String, String> entry : event.getMDCPropertyMap().entrySet()) {
+            generator.writeStringField(entry.getKey(), entry.getValue());
+        }
+        final List<KeyValuePair> keyValuePairs = event.getKeyValuePairs();
+        if (keyValuePairs != null) {
+            for (final KeyValuePair pair : keyValuePairs) {
+                generator.writeFieldName(pair.key);
+                writeValue(generator, pair.value);
+            }
+        }
+        final IThrowableProxy throwable = event.getThrowableProxy();
+        if (throwable != null) {
+            generator.writeStringField("exception", ThrowableProxyUtil.asString(throwable));
+        }
+        generator.writeEndObject();
+    }
+
+    private static void writeValue(final JsonGenerator generator, final Object value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Short) {
+            generator.writeNumber(((Number) value).longValue());
+        } else if (value instanceof Number number) {
+            generator.writeNumber(number.doubleValue());
+        } else if (value instanceof Boolean bool) {
+            generator.writeBoolean(bool);
+        } else {
+            generator.writeString(value.toString());
+        }
+    }
+
+    private OutputStream openOutput() throws IOException {
+        if (file == null) {
+            return new FileOutputStream(FileDescriptor.out);
+        }
+        final File target = new File(file);
+        final File parent = target.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Could not create directory " + parent);
+        }
+        return new BufferedOutputStream(new FileOutputStream(target, true), 64 * 1024);
+    }
+
+    public int getQueueDepth() {
+        return queue == null ? 0 : queue.size();
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    public long getWrittenCount() {
+        return written.sum();
+    }
+
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    public void setQueueSize(final int queueSize) {
+        this.queueSize = queueSize;
+    }
+
+    public void setBatchSize(final int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public void setFlushIntervalMillis(final long flushIntervalMillis) {
+        this.flushIntervalMillis = flushIntervalMillis;
+    }
+
+    public void setMaxBlockMillis(final long maxBlockMillis) {
+        this.maxBlockMillis = maxBlockMillis;
+    }
+
+    public void setDropPolicy(final String dropPolicy) {
+        this.dropPolicy = DropPolicy.valueOf(dropPolicy.trim().toUpperCase(Locale.ROOT));
+    }
+
+    public void setNeverDropLevel(final String neverDropLevel) {
+        this.neverDropLevel = Level.toLevel(neverDropLevel, Level.WARN);
+    }
+
+    public void setFile(final String file) {
+        this.file = file;
+    }
+}
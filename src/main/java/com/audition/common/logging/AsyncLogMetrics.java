@@ -0,0 +1,56 @@
+package com.audition.common.logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Set;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/*
+Exports queue depth, dropped and written events of every AsyncJsonLinesAppender configured in logback. The appenders are
+created by logback before the application context, so they are looked up from the logger context when metrics are bound.
+ */
+@Component
+public class AsyncLogMetrics implements MeterBinder {
+
+    @Override
+    public void bindTo(final MeterRegistry registry) {
+        if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext context)) {
+            return;
+        }
+        final Set<AsyncJsonLinesAppender> appenders = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (final Logger logger : context.getLoggerList()) {
+            final Iterator<Appender<ILoggingEvent>> iterator = logger.iteratorForAppenders();
+            while (iterator.hasNext()) {
+                if (iterator.next() instanceof AsyncJsonLinesAppender appender) {
+                    appenders.add(appender);
+                }
+            }
+        }
+        for (final AsyncJsonLinesAppender appender : appenders) {
+            Gauge.builder("logging.async.queue.depth", appender, AsyncJsonLinesAppender::getQueueDepth)
+                .description("Log events waiting to be written")
+                .tag("appender", appender.getName())
+                .register(registry);
+            Gauge.builder("logging.async.queue.capacity", appender, AsyncJsonLinesAppender::getQueueSize)
+                .tag("appender", appender.getName())
+                .register(registry);
+            FunctionCounter.builder("logging.async.dropped", appender, AsyncJsonLinesAppender::getDroppedCount)
+                .description("Log events dropped because the queue was full or the write failed")
+                .tag("appender", appender.getName())
+                .register(registry);
+            FunctionCounter.builder("logging.async.written", appender, AsyncJsonLinesAppender::getWrittenCount)
+                .tag("appender", appender.getName())
+                .register(registry);
+        }
+    }
+}
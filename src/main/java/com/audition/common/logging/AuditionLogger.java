@@ -1,6 +1,7 @@
 package com.audition.common.logging;
 
 import org.slf4j.Logger;
+import org.slf4j.spi.LoggingEventBuilder;
 import org.springframework.http.ProblemDetail;
 import org.springframework.stereotype.Component;
 
@@ -45,27 +46,57 @@ public class AuditionLogger {
 
     public void logStandardProblemDetail(final Logger logger, final ProblemDetail problemDetail, final Exception e) {
         if (logger.isErrorEnabled()) {
-            final var message = createStandardProblemDetailMessage(problemDetail);
-            logger.error(message, e);
+            // TODO-Resolved Add implementation here.
+            logger.atError()
+                .addKeyValue("type", problemDetail.getType())
+                .addKeyValue("title", problemDetail.getTitle())
+                .addKeyValue("status", problemDetail.getStatus())
+                .addKeyValue("detail", problemDetail.getDetail())
+                .addKeyValue("instance", problemDetail.getInstance())
+                .setCause(e)
+                .log("Problem detail");
         }
     }
 
     public void logHttpStatusCodeError(final Logger logger, final String message, final Integer errorCode) {
         if (logger.isErrorEnabled()) {
-            logger.error(createBasicErrorResponseMessage(errorCode, message) + "\n");
+            // TODO-Resolved Add implementation here.
+            logger.atError()
+                .addKeyValue("status", errorCode)
+                .addKeyValue("detail", message)
+                .log("Http status code error");
+        }
+    }
+
+    /*
+    Structured logging: keyValues alternate between a field name and its value, e.g.
+    logInfo(LOG, "Upstream response", "status", 200, "durationMs", 12). Fields are kept apart from the message and
+    written as JSON properties by AsyncJsonLinesAppender. Nothing is formatted when the level is disabled.
+     */
+    public void logInfo(final Logger logger, final String message, final Object... keyValues) {
+        if (logger.isInfoEnabled()) {
+            addKeyValues(logger.atInfo(), keyValues).log(message);
+        }
+    }
+
+    public void logWarn(final Logger logger, final String message, final Object... keyValues) {
+        if (logger.isWarnEnabled()) {
+            addKeyValues(logger.atWarn(), keyValues).log(message);
         }
     }
 
-    private String createStandardProblemDetailMessage(final ProblemDetail standardProblemDetail) {
-        // TODO-Resolved Add implementation here.
-        return "type='" + standardProblemDetail.getType() + "', title='" + standardProblemDetail.getTitle()
-            + "', status=" + standardProblemDetail.getStatus()
-            + ", detail='" + standardProblemDetail.getDetail() + "', instance='"
-            + standardProblemDetail.getInstance();
+    public void logError(final Logger logger, final String message, final Throwable cause,
+        final Object... keyValues) {
+        if (logger.isErrorEnabled()) {
+            addKeyValues(logger.atError(), keyValues).setCause(cause).log(message);
+        }
     }
 
-    private String createBasicErrorResponseMessage(final Integer errorCode, final String message) {
-        // TODO-Resolved Add implementation here.
-        return "status=" + errorCode + ", detail='" + message;
+    private static LoggingEventBuilder addKeyValues(final LoggingEventBuilder builder, final Object... keyValues) {
+        LoggingEventBuilder result = builder;
+        for (int i = 0; i + 1 < keyValues.length; i += 2) {
+            result = result.addKeyValue(String.valueOf(keyValues[i]), keyValues[i + 1]);
+        }
+        return result;
     }
 }
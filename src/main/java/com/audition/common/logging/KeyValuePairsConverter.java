@@ -0,0 +1,26 @@
+package com.audition.common.logging;
+
+import ch.qos.logback.classic.pattern.ClassicConverter;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import java.util.List;
+import org.slf4j.event.KeyValuePair;
+
+/*
+Appends the key/value fields of a structured log event (see AuditionLogger.logInfo) to pattern based output, e.g.
+" status=200 durationMs=12". Registered as %kv in logback-spring.xml.
+ */
+public class KeyValuePairsConverter extends ClassicConverter {
+
+    @Override
+    public String convert(final ILoggingEvent event) {
+        final List<KeyValuePair> keyValuePairs = event.getKeyValuePairs();
+        if (keyValuePairs == null || keyValuePairs.isEmpty()) {
+            return "";
+        }
+        final StringBuilder builder = new StringBuilder(keyValuePairs.size() * 16);
+        for (final KeyValuePair pair : keyValuePairs) {
+            builder.append(' ').append(pair.key).append('=').append(pair.value);
+        }
+        return builder.toString();
+    }
+}
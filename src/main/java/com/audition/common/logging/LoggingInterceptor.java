@@ -1,71 +1,230 @@
 package com.audition.common.logging;
 
-import com.audition.web.advice.ExceptionControllerAdvice;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.audition.configuration.UpstreamLoggingProperties;
+import com.audition.configuration.UpstreamLoggingProperties.RouteSampling;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.client.ClientHttpRequestExecution;
 import org.springframework.http.client.ClientHttpRequestInterceptor;
 import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.stereotype.Component;
 
+/*
+Logs sampled upstream calls. Nothing is captured unless INFO is enabled and the call is sampled by its route and status.
+For a sampled call the response body is not read ahead: the bytes the caller reads anyway are copied up to maxBodyBytes
+and the line is written when the response is closed. Bodies are logged as received, headers are left out since the
+request carries credentials.
+ */
 @Component
 public class LoggingInterceptor implements ClientHttpRequestInterceptor {
 
-    private static final Logger LOG = LoggerFactory.getLogger(ExceptionControllerAdvice.class);
+    private static final Logger LOG = LoggerFactory.getLogger(LoggingInterceptor.class);
+    private static final int CLIENT_ERROR = 400;
 
-    @Autowired
-    private ObjectMapper objectMapper;
+    private final AuditionLogger logger;
+    private final int maxBodyBytes;
+    private final double successSampleRate;
+    private final double errorSampleRate;
+    private final Map<Integer, Double> statusSampleRates;
+    private final List<RouteSampling> routes;
 
-    @Autowired
-    private AuditionLogger logger;
+    public LoggingInterceptor(final AuditionLogger logger, final UpstreamLoggingProperties properties) {
+        this.logger = logger;
+        this.maxBodyBytes = Math.max(0, properties.getMaxBodyBytes());
+        this.successSampleRate = properties.getSuccessSampleRate();
+        this.errorSampleRate = properties.getErrorSampleRate();
+        this.statusSampleRates = Map.copyOf(properties.getStatusSampleRates());
+        final List<RouteSampling> sortedRoutes = new ArrayList<>(properties.getRoutes());
+        sortedRoutes.sort(Comparator.comparingInt((RouteSampling route) -> route.getPathPrefix().length()).reversed());
+        this.routes = List.copyOf(sortedRoutes);
+    }
 
     @Override
-    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
-        throws IOException {
-        // Log the request details
-        logRequest(request, body);
+    public ClientHttpResponse intercept(final HttpRequest request, final byte[] body,
+        final ClientHttpRequestExecution execution) throws IOException {
+        if (!LOG.isInfoEnabled()) {
+            return execution.execute(request, body);
+        }
+        final long start = System.nanoTime();
+        final ClientHttpResponse response;
+        try {
+            response = execution.execute(request, body);
+        } catch (final IOException e) {
+            logger.logInfo(LOG, "Upstream request failed", "method", request.getMethod(), "uri", request.getURI(),
+                "durationMs", elapsedMillis(start), "error", e.toString());
+            throw e;
+        }
+        final int status = response.getStatusCode().value();
+        if (!isSampled(request.getURI().getPath(), status)) {
+            return response;
+        }
+        return new LoggedResponse(response, request, body, start);
+    }
+
+    boolean isSampled(final String path, final int status) {
+        final double rate = sampleRate(path, status);
+        return rate >= 1.0 || rate > 0.0 && ThreadLocalRandom.current().nextDouble() < rate;
+    }
 
-        // Execute the request and get the response
-        ClientHttpResponse response = execution.execute(request, body);
+    private double sampleRate(final String path, final int status) {
+        final Double statusRate = statusSampleRates.get(status);
+        if (statusRate != null) {
+            return statusRate;
+        }
+        if (status >= CLIENT_ERROR) {
+            return errorSampleRate;
+        }
+        if (path != null) {
+            for (final RouteSampling route : routes) {
+                if (path.startsWith(route.getPathPrefix())) {
+                    return route.getSuccessSampleRate();
+                }
+            }
+        }
+        return successSampleRate;
+    }
 
-        // Log the response details
-        logResponse(response);
+    private static String describeBody(final byte[] content, final int captured, final long total) {
+        if (total == 0) {
+            return "(empty body)";
+        }
+        final String text = new String(content, 0, captured, StandardCharsets.UTF_8);
+        return total > captured ? text + "...(" + (total - captured) + " bytes truncated)" : text;
+    }
 
-        return response;
+    private static long elapsedMillis(final long start) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
     }
 
-    private void logRequest(HttpRequest request, byte[] body) {
-        try {
-            String bodyContent = new String(body, StandardCharsets.UTF_8);
-            String formattedBody = !bodyContent.isEmpty() ? formatJsonIfApplicable(bodyContent) : "(empty body)";
+    private final class LoggedResponse implements ClientHttpResponse {
 
-            logger.info(LOG, String.format("Request: Method: %s URL: %s Headers: %s Body: %s ",
-                request.getMethod().name(), request.getURI(), request.getHeaders().entrySet(),
-                formattedBody));
-        } catch (Exception e) {
-            logger.warn(LOG, String.format("Failed to log request body: %s", e));
+        private final ClientHttpResponse delegate;
+        private final HttpRequest request;
+        private final byte[] requestBody;
+        private final long start;
+        private CapturingInputStream body;
+        private boolean logged;
+
+        LoggedResponse(final ClientHttpResponse delegate, final HttpRequest request, final byte[] requestBody,
+            final long start) {
+            this.delegate = delegate;
+            this.request = request;
+            this.requestBody = requestBody;
+            this.start = start;
         }
-    }
 
-    private void logResponse(ClientHttpResponse response) throws IOException {
-        String responseBody = new String(response.getBody().readAllBytes(), StandardCharsets.UTF_8);
-        String formattedBody = responseBody.length() > 0 ? formatJsonIfApplicable(responseBody) : "(empty body)";
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
 
-        logger.info(LOG, String.format("Response: Status: {} Headers: {} Body: {}",
-            response.getStatusCode(), response.getHeaders(), formattedBody));
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            if (body == null) {
+                body = new CapturingInputStream(delegate.getBody(), maxBodyBytes);
+            }
+            return body;
+        }
+
+        @Override
+        public void close() {
+            try {
+                log();
+            } finally {
+                delegate.close();
+            }
+        }
+
+        private void log() {
+            if (logged) {
+                return;
+            }
+            logged = true;
+            try {
+                final int requestCaptured = Math.min(requestBody.length, maxBodyBytes);
+                final String responseBody = body == null ? "(not read)"
+                    : describeBody(body.captured, body.capturedLength, body.total);
+                logger.logInfo(LOG, "Upstream response", "method", request.getMethod(), "uri", request.getURI(),
+                    "status", delegate.getStatusCode().value(), "durationMs", elapsedMillis(start),
+                    "requestBody", describeBody(requestBody, requestCaptured, requestBody.length),
+                    "responseBody", responseBody);
+            } catch (IOException | RuntimeException e) {
+                logger.logWarn(LOG, "Failed to log upstream response", "error", e.toString());
+            }
+        }
     }
 
-    private String formatJsonIfApplicable(String content) {
-        try {
-            return objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(objectMapper.readTree(content));
-        } catch (Exception e) {
-            return content; // Return as-is if not a valid JSON
+    // Copies the first bytes read by the caller and counts the rest, the stream is never read on its own.
+    private static final class CapturingInputStream extends FilterInputStream {
+
+        private final byte[] captured;
+        private int capturedLength;
+        private long total;
+
+        CapturingInputStream(final InputStream in, final int maxBytes) {
+            super(in);
+            this.captured = new byte[maxBytes];
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int value = super.read();
+            if (value >= 0) {
+                if (capturedLength < captured.length) {
+                    captured[capturedLength++] = (byte) value;
+                }
+                total++;
+            }
+            return value;
+        }
+
+        @Override
+        public int read(final byte[] buffer, final int offset, final int length) throws IOException {
+            final int count = super.read(buffer, offset, length);
+            if (count > 0) {
+                final int copy = Math.min(count, captured.length - capturedLength);
+                if (copy > 0) {
+                    System.arraycopy(buffer, offset, captured, capturedLength, copy);
+                    capturedLength += copy;
+                }
+                total += count;
+            }
+            return count;
+        }
+
+        @Override
+        public long skip(final long count) throws IOException {
+            final long skipped = super.skip(count);
+            total += skipped;
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
         }
     }
 }
-
@@ -0,0 +1,69 @@
+package com.audition.common.timing;
+
+import com.audition.common.timing.RequestTiming.Phase;
+import com.audition.configuration.PhaseTimingProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.springframework.stereotype.Component;
+
+/*
+Phase timers per api endpoint (http.server.phases) and per upstream route (http.client.phases). Both publish a
+percentile histogram that includes the configured service level objectives as buckets. Timers are resolved once per uri
+and phase, recording looks them up without building tags or meter ids.
+ */
+@Component
+public class PhaseTimers {
+
+    static final String SERVER_PHASES = "http.server.phases";
+    static final String CLIENT_PHASES = "http.client.phases";
+
+    private static final Phase[] PHASES = Phase.values();
+
+    private final MeterRegistry meterRegistry;
+    private final Duration[] serviceLevelObjectives;
+    private final Map<String, AtomicReferenceArray<Timer>> serverTimers = new ConcurrentHashMap<>();
+    private final Map<String, AtomicReferenceArray<Timer>> clientTimers = new ConcurrentHashMap<>();
+
+    public PhaseTimers(final MeterRegistry meterRegistry, final PhaseTimingProperties properties) {
+        this.meterRegistry = meterRegistry;
+        this.serviceLevelObjectives = properties.getServiceLevelObjectives().toArray(new Duration[0]);
+    }
+
+    public void recordServer(final String uri, final Phase phase, final long nanos) {
+        timer(serverTimers, SERVER_PHASES, "Time spent per phase of api requests", uri, phase)
+            .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordClient(final String uri, final Phase phase, final long nanos) {
+        timer(clientTimers, CLIENT_PHASES, "Time spent per phase of upstream calls", uri, phase)
+            .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /*
+    Timers are registered on first use, phases a uri never goes through are not published. Two threads may register the
+    same timer at once, the registry hands both the same instance.
+     */
+    private Timer timer(final Map<String, AtomicReferenceArray<Timer>> cache, final String name,
+        final String description, final String uri, final Phase phase) {
+        final AtomicReferenceArray<Timer> timers = cache.computeIfAbsent(uri,
+            key -> new AtomicReferenceArray<>(PHASES.length));
+        final Timer timer = timers.get(phase.ordinal());
+        if (timer != null) {
+            return timer;
+        }
+        final Timer registered = Timer.builder(name)
+            .description(description)
+            .tag("uri", uri)
+            .tag("phase", phase.getMetricName())
+            .publishPercentileHistogram()
+            .serviceLevelObjectives(serviceLevelObjectives)
+            .register(meterRegistry);
+        timers.set(phase.ordinal(), registered);
+        return registered;
+    }
+}
@@ -0,0 +1,94 @@
+package com.audition.common.timing;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.StringJoiner;
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/*
+Time spent per phase of the current request. Phases are summed, so calls fanned out in parallel may add up to more
+than the request took. The recorder is a request attribute, work handed to the upstream executor takes it along (see
+TracingTaskDecorator). Recording outside a request does nothing.
+ */
+public final class RequestTiming {
+
+    public enum Phase {
+        UPSTREAM, DESERIALIZE, FILTER, SERIALIZE;
+
+        private final String metricName = name().toLowerCase(Locale.ROOT);
+
+        public String getMetricName() {
+            return metricName;
+        }
+    }
+
+    private static final String ATTRIBUTE = RequestTiming.class.getName();
+    private static final ThreadLocal<RequestTiming> HANDED_OVER = new ThreadLocal<>();
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final AtomicLongArray nanos = new AtomicLongArray(Phase.values().length);
+
+    public static RequestTiming start(final HttpServletRequest request) {
+        final RequestTiming timing = new RequestTiming();
+        request.setAttribute(ATTRIBUTE, timing);
+        return timing;
+    }
+
+    public static Optional<RequestTiming> current() {
+        final RequestTiming handedOver = HANDED_OVER.get();
+        if (handedOver != null) {
+            return Optional.of(handedOver);
+        }
+        final RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(
+            (RequestTiming) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST));
+    }
+
+    public static void record(final Phase phase, final long durationNanos) {
+        current().ifPresent(timing -> timing.nanos.addAndGet(phase.ordinal(), durationNanos));
+    }
+
+    // Binds the recorder of the submitting thread while the task runs on another one.
+    public static Runnable handOver(final Runnable runnable) {
+        final RequestTiming timing = current().orElse(null);
+        if (timing == null) {
+            return runnable;
+        }
+        return () -> {
+            final RequestTiming previous = HANDED_OVER.get();
+            HANDED_OVER.set(timing);
+            try {
+                runnable.run();
+            } finally {
+                if (previous == null) {
+                    HANDED_OVER.remove();
+                } else {
+                    HANDED_OVER.set(previous);
+                }
+            }
+        };
+    }
+
+    public long getNanos(final Phase phase) {
+        return nanos.get(phase.ordinal());
+    }
+
+    // Server-Timing value of the phases recorded so far, e.g. "upstream;dur=12.4, filter;dur=0.3".
+    public String toServerTiming() {
+        final StringJoiner value = new StringJoiner(", ");
+        for (final Phase phase : Phase.values()) {
+            final long phaseNanos = getNanos(phase);
+            if (phaseNanos > 0) {
+                value.add(String.format(Locale.ROOT, "%s;dur=%.1f", phase.getMetricName(),
+                    phaseNanos / NANOS_PER_MILLI));
+            }
+        }
+        return value.toString();
+    }
+}
@@ -0,0 +1,129 @@
+package com.audition.common.timing;
+
+import com.audition.common.timing.RequestTiming.Phase;
+import java.io.IOException;
+import java.io.InputStream;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+
+/*
+Splits upstream calls into the round trip (until the response headers arrived) and deserialization (reading and
+parsing the body until the response is closed). Both are added to the current request's timing and recorded per route,
+numeric path segments are replaced by {id} to keep the number of routes bounded.
+ */
+@Component
+public class UpstreamTimingInterceptor implements ClientHttpRequestInterceptor {
+
+    private final PhaseTimers phaseTimers;
+
+    public UpstreamTimingInterceptor(final PhaseTimers phaseTimers) {
+        this.phaseTimers = phaseTimers;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(final HttpRequest request, final byte[] body,
+        final ClientHttpRequestExecution execution) throws IOException {
+        final String route = route(request.getURI().getPath());
+        final long start = System.nanoTime();
+        final ClientHttpResponse response;
+        try {
+            response = execution.execute(request, body);
+        } finally {
+            record(route, Phase.UPSTREAM, System.nanoTime() - start);
+        }
+        return new TimedResponse(response, route, System.nanoTime());
+    }
+
+    static String route(final String path) {
+        if (path == null || path.isEmpty()) {
+            return "/";
+        }
+        final StringBuilder route = new StringBuilder(path.length());
+        int segmentStart = 0;
+        while (segmentStart < path.length()) {
+            int segmentEnd = path.indexOf('/', segmentStart);
+            if (segmentEnd < 0) {
+                segmentEnd = path.length();
+            }
+            if (isNumber(path, segmentStart, segmentEnd)) {
+                route.append("{id}");
+            } else {
+                route.append(path, segmentStart, segmentEnd);
+            }
+            if (segmentEnd < path.length()) {
+                route.append('/');
+            }
+            segmentStart = segmentEnd + 1;
+        }
+        return route.toString();
+    }
+
+    private static boolean isNumber(final String path, final int start, final int end) {
+        if (start == end) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            if (!Character.isDigit(path.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void record(final String route, final Phase phase, final long nanos) {
+        RequestTiming.record(phase, nanos);
+        phaseTimers.recordClient(route, phase, nanos);
+    }
+
+    private final class TimedResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse delegate;
+        private final String route;
+        private final long received;
+        private boolean recorded;
+
+        TimedResponse(final ClientHttpResponse delegate, final String route, final long received) {
+            this.delegate = delegate;
+            this.route = route;
+            this.received = received;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return delegate.getBody();
+        }
+
+        // RestTemplate closes the response once the body was extracted.
+        @Override
+        public void close() {
+            try {
+                if (!recorded) {
+                    recorded = true;
+                    record(route, Phase.DESERIALIZE, System.nanoTime() - received);
+                }
+            } finally {
+                delegate.close();
+            }
+        }
+    }
+}
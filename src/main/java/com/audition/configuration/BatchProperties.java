@@ -0,0 +1,23 @@
+package com.audition.configuration;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/*
+Batch lookups of posts (/posts/batch). Ids that are not cached are fetched by at most maxConcurrency workers per batch,
+on a pool of poolSize threads shared by all batches (separate from the upstream executor). Ids not looked up within
+timeout are reported as 504.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "application.batch")
+public class BatchProperties {
+
+    private int maxIds = 200;
+    private int maxConcurrency = 16;
+    private int poolSize = 32;
+    private int queueCapacity = 128;
+    private Duration timeout = Duration.ofSeconds(10);
+}
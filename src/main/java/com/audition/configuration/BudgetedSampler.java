@@ -0,0 +1,25 @@
+package com.audition.configuration;
+
+import brave.sampler.CountingSampler;
+import brave.sampler.RateLimitingSampler;
+import brave.sampler.Sampler;
+
+/*
+Samples new traces with a fixed probability and caps the sampled ones at tracesPerSecond. The rate limiter is only
+consulted for traces the probability already selected, so the budget is spent on a spread of requests.
+ */
+public class BudgetedSampler extends Sampler {
+
+    private final Sampler probability;
+    private final Sampler budget;
+
+    public BudgetedSampler(final float probability, final int tracesPerSecond) {
+        this.probability = CountingSampler.create(probability);
+        this.budget = tracesPerSecond > 0 ? RateLimitingSampler.create(tracesPerSecond) : Sampler.NEVER_SAMPLE;
+    }
+
+    @Override
+    public boolean isSampled(final long traceId) {
+        return probability.isSampled(traceId) && budget.isSampled(traceId);
+    }
+}
@@ -0,0 +1,84 @@
+package com.audition.configuration;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+
+/*
+Remembers successful username/password authentications of the delegate for a short time. Entries are keyed by an HMAC
+of username and password under a key generated at startup, so neither the password nor a plain digest of it is held
+in memory. Failed attempts are not cached and always reach the delegate.
+ */
+public class CachingAuthenticationProvider implements AuthenticationProvider {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final int KEY_BYTES = 32;
+
+    private final AuthenticationProvider delegate;
+    private final Cache<String, Authentication> authentications;
+    private final SecretKeySpec key;
+
+    public CachingAuthenticationProvider(final AuthenticationProvider delegate,
+        final CredentialCacheProperties properties, final Ticker ticker) {
+        this.delegate = delegate;
+        this.authentications = Caffeine.newBuilder()
+            .expireAfterWrite(properties.getExpireAfterWrite())
+            .maximumSize(properties.getMaximumSize())
+            .ticker(ticker)
+            .recordStats()
+            .build();
+        final byte[] secret = new byte[KEY_BYTES];
+        new SecureRandom().nextBytes(secret);
+        this.key = new SecretKeySpec(secret, HMAC_ALGORITHM);
+    }
+
+    @Override
+    public Authentication authenticate(final Authentication authentication) throws AuthenticationException {
+        if (!(authentication.getCredentials() instanceof String password)) {
+            return delegate.authenticate(authentication);
+        }
+        final String cacheKey = cacheKey(authentication.getName(), password);
+        final Authentication cached = authentications.getIfPresent(cacheKey);
+        if (cached != null) {
+            return cached;
+        }
+        final Authentication result = delegate.authenticate(authentication);
+        if (result != null && result.isAuthenticated()) {
+            authentications.put(cacheKey, result);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean supports(final Class<?> authentication) {
+        return UsernamePasswordAuthenticationToken.class.isAssignableFrom(authentication)
+            && delegate.supports(authentication);
+    }
+
+    Cache<String, Authentication> getCache() {
+        return authentications;
+    }
+
+    private String cacheKey(final String username, final String password) {
+        try {
+            final Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(key);
+            mac.update(username.getBytes(StandardCharsets.UTF_8));
+            // Basic auth usernames cannot contain the separator, so no two credentials give the same input.
+            mac.update((byte) ':');
+            return Base64.getEncoder().encodeToString(mac.doFinal(password.getBytes(StandardCharsets.UTF_8)));
+        } catch (final GeneralSecurityException e) {
+            throw new IllegalStateException(HMAC_ALGORITHM + " is not available", e);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.audition.configuration;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/*
+Connection settings for calls to the upstream api. Plain numbers are read as milliseconds.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "application.connection")
+public class ConnectionProperties {
+
+    public enum ClientType {
+        // Apache HttpClient 5 with a pooled, keep-alive connection manager.
+        POOLED,
+        // HttpURLConnection based factory, one connection per request and no pool limits.
+        SIMPLE
+    }
+
+    private ClientType client = ClientType.POOLED;
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    private Duration readTimeout = Duration.ofSeconds(5);
+    // Only used by the reactive WebClient, the blocking clients have no write timeout of their own.
+    private Duration writeTimeout = Duration.ofSeconds(5);
+    private Duration responseTimeout = Duration.ofSeconds(5);
+    // Maximum time a request waits for a free connection from the pool.
+    private Duration poolAcquireTimeout = Duration.ofSeconds(1);
+    private Duration idleTimeout = Duration.ofSeconds(30);
+    private int maxConnections = 200;
+    private int maxConnectionsPerRoute = 50;
+}
@@ -0,0 +1,20 @@
+package com.audition.configuration;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/*
+Successfully verified basic auth credentials are remembered for expireAfterWrite, so the password hash runs once per
+client and period instead of on every request. A changed or removed user is noticed after at most that time.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "application.security.credential-cache")
+public class CredentialCacheProperties {
+
+    private boolean enabled = true;
+    private Duration expireAfterWrite = Duration.ofMinutes(5);
+    private long maximumSize = 1_000;
+}
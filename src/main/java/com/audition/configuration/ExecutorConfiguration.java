@@ -0,0 +1,79 @@
+package com.audition.configuration;
+
+import com.audition.common.logging.AuditionLogger;
+import io.micrometer.tracing.Tracer;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import org.apache.coyote.ProtocolHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class ExecutorConfiguration {
+
+    public static final String UPSTREAM_EXECUTOR = "upstreamExecutor";
+    public static final String BATCH_EXECUTOR = "batchExecutor";
+    private static final Logger LOG = LoggerFactory.getLogger(ExecutorConfiguration.class);
+    private static final String VIRTUAL_THREADS_UNAVAILABLE =
+        "Virtual threads require Java 21 or later, falling back to platform threads for ";
+
+    @Bean(UPSTREAM_EXECUTOR)
+    public AsyncTaskExecutor upstreamExecutor(final UpstreamExecutorProperties properties, final Tracer tracer,
+        final AuditionLogger logger, @Value("${application.threads.virtual.enabled:false}") final boolean virtual) {
+        return newExecutor(UPSTREAM_EXECUTOR, "upstream-", properties.getCorePoolSize(), properties.getMaxPoolSize(),
+            properties.getQueueCapacity(), tracer, logger, virtual);
+    }
+
+    /*
+    Runs the workers of batch lookups. They block on upstream calls that are themselves fanned out on the upstream
+    executor (post and comments), so they must not take threads of that pool or they could wait on their own queue.
+     */
+    @Bean(BATCH_EXECUTOR)
+    public AsyncTaskExecutor batchExecutor(final BatchProperties properties, final Tracer tracer,
+        final AuditionLogger logger, @Value("${application.threads.virtual.enabled:false}") final boolean virtual) {
+        return newExecutor(BATCH_EXECUTOR, "batch-", properties.getPoolSize(), properties.getPoolSize(),
+            properties.getQueueCapacity(), tracer, logger, virtual);
+    }
+
+    private static AsyncTaskExecutor newExecutor(final String name, final String threadNamePrefix,
+        final int corePoolSize, final int maxPoolSize, final int queueCapacity, final Tracer tracer,
+        final AuditionLogger logger, final boolean virtual) {
+        if (virtual) {
+            final Optional<ExecutorService> virtualExecutor = VirtualThreads.newVirtualThreadPerTaskExecutor();
+            if (virtualExecutor.isPresent()) {
+                // One virtual thread per upstream call, concurrency is bounded by the http client connection pool.
+                final TaskExecutorAdapter executor = new TaskExecutorAdapter(virtualExecutor.get());
+                executor.setTaskDecorator(new TracingTaskDecorator(tracer));
+                return executor;
+            }
+            logger.warn(LOG, VIRTUAL_THREADS_UNAVAILABLE + name);
+        }
+        final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(threadNamePrefix);
+        executor.setCorePoolSize(corePoolSize);
+        executor.setMaxPoolSize(maxPoolSize);
+        executor.setQueueCapacity(queueCapacity);
+        // When the pool and queue are full the request thread makes the upstream call itself instead of failing.
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setTaskDecorator(new TracingTaskDecorator(tracer));
+        return executor;
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "application.threads.virtual", name = "enabled", havingValue = "true")
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer(
+        final AuditionLogger logger) {
+        // Tomcat hands every request to a new virtual thread instead of its bounded worker pool.
+        return protocolHandler -> VirtualThreads.newVirtualThreadPerTaskExecutor().ifPresentOrElse(
+            protocolHandler::setExecutor, () -> logger.warn(LOG, VIRTUAL_THREADS_UNAVAILABLE + "Tomcat"));
+    }
+}
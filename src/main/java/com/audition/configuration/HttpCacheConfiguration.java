@@ -0,0 +1,27 @@
+package com.audition.configuration;
+
+import com.audition.service.AuditionService;
+import com.audition.web.ConditionalGetInterceptor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class HttpCacheConfiguration implements WebMvcConfigurer {
+
+    private final AuditionService auditionService;
+    private final HttpCacheProperties httpCacheProperties;
+
+    public HttpCacheConfiguration(final AuditionService auditionService,
+        final HttpCacheProperties httpCacheProperties) {
+        this.auditionService = auditionService;
+        this.httpCacheProperties = httpCacheProperties;
+    }
+
+    @Override
+    public void addInterceptors(final InterceptorRegistry registry) {
+        // The interceptor resolves the cached entry from the matched pattern, /posts/stream is not cached.
+        registry.addInterceptor(new ConditionalGetInterceptor(auditionService, httpCacheProperties))
+            .addPathPatterns("/posts", "/posts/*", "/posts/*/comments", "/comments/*");
+    }
+}
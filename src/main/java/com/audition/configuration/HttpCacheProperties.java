@@ -0,0 +1,18 @@
+package com.audition.configuration;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/*
+Caching by clients of the api. Responses backed by the upstream caches carry a strong ETag and may be reused for maxAge
+before clients revalidate them with If-None-Match. They are marked private since the api requires authentication.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "application.http-cache")
+public class HttpCacheProperties {
+
+    private Duration maxAge = Duration.ofSeconds(30);
+}
@@ -0,0 +1,47 @@
+package com.audition.configuration;
+
+import com.audition.common.timing.PhaseTimers;
+import com.audition.common.timing.RequestTiming;
+import com.audition.common.timing.RequestTiming.Phase;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+/*
+Starts the phase timing of a request and records its phases per endpoint once the response was written. Requests that
+did not match an endpoint are not recorded. The Server-Timing header is set before the body is written, see
+ServerTimingAdvice.
+ */
+@Component
+public class PhaseTimingFilter extends OncePerRequestFilter {
+
+    private final PhaseTimers phaseTimers;
+
+    public PhaseTimingFilter(final PhaseTimers phaseTimers) {
+        this.phaseTimers = phaseTimers;
+    }
+
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response,
+        final FilterChain filterChain) throws ServletException, IOException {
+        final RequestTiming timing = RequestTiming.start(request);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE) instanceof String endpoint) {
+                for (final Phase phase : Phase.values()) {
+                    final long nanos = timing.getNanos(phase);
+                    // Phases a request did not go through stay out of the histograms.
+                    if (nanos > 0) {
+                        phaseTimers.recordServer(endpoint, phase, nanos);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.audition.configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/*
+Per phase latency of requests (upstream round trip, deserialization, filtering, serialization). Phase timers publish a
+percentile histogram with serviceLevelObjectives as extra buckets, so SLO compliance can be read off the buckets
+directly. With serverTimingHeader the phases of a request are also returned in a Server-Timing header.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "application.metrics.phases")
+public class PhaseTimingProperties {
+
+    private boolean serverTimingHeader;
+    private List<Duration> serviceLevelObjectives = new ArrayList<>(List.of(Duration.ofMillis(10),
+        Duration.ofMillis(50), Duration.ofMillis(100), Duration.ofMillis(250), Duration.ofMillis(500),
+        Duration.ofSeconds(1)));
+}
@@ -1,15 +1,30 @@
 package com.audition.configuration;
 
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.regex.Pattern;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 
 @Configuration
 public class SecurityConfig {
 
+    // Same rule as Spring Boot: a password without an {id} prefix is stored in plain text.
+    private static final Pattern ENCODED_PASSWORD = Pattern.compile("^\\{.+}.*$");
+
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity httpSecurity) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity httpSecurity,
+        AuthenticationProvider authenticationProvider) throws Exception {
         /*
         As per requirements
             1. actuator/health and actuator/info are publically available
@@ -21,7 +36,41 @@ public class SecurityConfig {
                 .requestMatchers("/actuator/**").authenticated()
                 .anyRequest().authenticated() // Secure other application endpoints
             )
+            // The batch lookup only reads, it is a POST so that long id lists fit into the body.
+            .csrf(csrf -> csrf.ignoringRequestMatchers("/posts/batch"))
+            .authenticationProvider(authenticationProvider)
             .httpBasic();
         return httpSecurity.build();
     }
+
+    /*
+    The user from spring.security.user, as Spring Boot would configure it. Its password may be encoded, e.g. with a
+    {bcrypt} prefix. Boot backs off once an AuthenticationProvider is declared, so the user is declared here.
+     */
+    @Bean
+    public UserDetailsService userDetailsService(final SecurityProperties securityProperties) {
+        final SecurityProperties.User user = securityProperties.getUser();
+        final String password = ENCODED_PASSWORD.matcher(user.getPassword()).matches() ? user.getPassword()
+            : "{noop}" + user.getPassword();
+        return new InMemoryUserDetailsManager(User.withUsername(user.getName())
+            .password(password)
+            .roles(user.getRoles().toArray(new String[0]))
+            .build());
+    }
+
+    @Bean
+    public AuthenticationProvider authenticationProvider(final UserDetailsService userDetailsService,
+        final CredentialCacheProperties credentialCacheProperties, final MeterRegistry meterRegistry) {
+        final DaoAuthenticationProvider daoProvider = new DaoAuthenticationProvider();
+        daoProvider.setUserDetailsService(userDetailsService);
+        daoProvider.setPasswordEncoder(PasswordEncoderFactories.createDelegatingPasswordEncoder());
+        if (!credentialCacheProperties.isEnabled()) {
+            return daoProvider;
+        }
+        // Basic auth sends the password with every request, the slow password hash only runs on a cache miss.
+        final CachingAuthenticationProvider cachingProvider = new CachingAuthenticationProvider(daoProvider,
+            credentialCacheProperties, Ticker.systemTicker());
+        CaffeineCacheMetrics.monitor(meterRegistry, cachingProvider.getCache(), "security.credentials");
+        return cachingProvider;
+    }
 }
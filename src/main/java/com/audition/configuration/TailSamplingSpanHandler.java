@@ -0,0 +1,114 @@
+package com.audition.configuration;
+
+import brave.handler.MutableSpan;
+import brave.handler.SpanHandler;
+import brave.propagation.TraceContext;
+import com.audition.configuration.TraceSamplingProperties.Tail;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+Exports traces the head sampler skipped when they turn out to be interesting: the local root span failed (exception,
+error tag or 5xx status) or took longer than the configured percentile of recent local roots. Spans of unsampled traces
+are held until their local root ends, then either handed to the exporting handler or dropped. Sampled traces are left
+to the regular exporter.
+ */
+public class TailSamplingSpanHandler extends SpanHandler {
+
+    static final String ROOT_SPANS_METER = "tracing.local.root.spans";
+    static final String KEPT_METER = "tracing.tail.sampled";
+    private static final long THRESHOLD_REFRESH_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private record Finished(TraceContext context, MutableSpan span) {
+
+    }
+
+    private final SpanHandler exporter;
+    private final Cache<Long, List<Finished>> pending;
+    private final Timer rootSpans;
+    private final MeterRegistry meterRegistry;
+    private final double slowPercentile;
+    private final long minSlowMicros;
+    private final AtomicLong slowMicros;
+    private final AtomicLong thresholdRefreshedAt = new AtomicLong(System.nanoTime());
+
+    // exporter must report every span it is given, sampled or not.
+    public TailSamplingSpanHandler(final SpanHandler exporter, final Tail properties,
+        final MeterRegistry meterRegistry) {
+        this.exporter = exporter;
+        this.pending = Caffeine.newBuilder()
+            .maximumSize(properties.getMaxPendingTraces())
+            .expireAfterWrite(properties.getMaxPendingTime())
+            .build();
+        this.slowPercentile = properties.getSlowPercentile();
+        this.rootSpans = Timer.builder(ROOT_SPANS_METER)
+            .description("Duration of local root spans, sampled or not")
+            .publishPercentiles(slowPercentile)
+            .register(meterRegistry);
+        this.meterRegistry = meterRegistry;
+        this.minSlowMicros = TimeUnit.NANOSECONDS.toMicros(properties.getMinSlowDuration().toNanos());
+        this.slowMicros = new AtomicLong(minSlowMicros);
+    }
+
+    @Override
+    public boolean end(final TraceContext context, final MutableSpan span, final Cause cause) {
+        if (cause != Cause.FINISHED) {
+            return true;
+        }
+        final long durationMicros = span.finishTimestamp() - span.startTimestamp();
+        if (context.isLocalRoot()) {
+            rootSpans.record(durationMicros, TimeUnit.MICROSECONDS);
+        }
+        if (Boolean.TRUE.equals(context.sampled())) {
+            return true;
+        }
+        if (!context.isLocalRoot()) {
+            // Children of one trace can end on different threads, e.g. the upstream fan-out.
+            pending.asMap()
+                .computeIfAbsent(context.localRootId(), id -> Collections.synchronizedList(new ArrayList<>()))
+                .add(new Finished(context, span));
+            return true;
+        }
+        final List<Finished> children = pending.asMap().remove(context.localRootId());
+        final String reason = isError(span) ? "error" : durationMicros > slowThreshold() ? "slow" : null;
+        if (reason != null) {
+            meterRegistry.counter(KEPT_METER, "reason", reason).increment();
+            if (children != null) {
+                synchronized (children) {
+                    children.forEach(child -> exporter.end(child.context(), child.span(), Cause.FINISHED));
+                }
+            }
+            exporter.end(context, span, Cause.FINISHED);
+        }
+        return true;
+    }
+
+    private static boolean isError(final MutableSpan span) {
+        if (span.error() != null || span.tag("error") != null) {
+            return true;
+        }
+        // Brave instrumentation tags http.status_code, Micrometer observations tag status.
+        final String status = span.tag("http.status_code") != null ? span.tag("http.status_code") : span.tag("status");
+        return status != null && status.length() == 3 && status.charAt(0) >= '5' && status.charAt(0) <= '9';
+    }
+
+    // The percentile is read from the timer's histogram at most once a second.
+    private long slowThreshold() {
+        final long now = System.nanoTime();
+        final long refreshedAt = thresholdRefreshedAt.get();
+        if (now - refreshedAt >= THRESHOLD_REFRESH_NANOS && thresholdRefreshedAt.compareAndSet(refreshedAt, now)) {
+            for (final ValueAtPercentile value : rootSpans.takeSnapshot().percentileValues()) {
+                slowMicros.set(Math.max(minSlowMicros, (long) value.value(TimeUnit.MICROSECONDS)));
+            }
+        }
+        return slowMicros.get();
+    }
+}
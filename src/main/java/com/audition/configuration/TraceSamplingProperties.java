@@ -0,0 +1,34 @@
+package com.audition.configuration;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/*
+Trace sampling, replaces management.tracing.sampling.probability. New traces are sampled with probability, but never
+more than tracesPerSecond of them. With tail sampling, spans of unsampled traces are kept in memory until the local root
+span ends and are exported when it failed or took longer than the slowPercentile of recent requests (at least
+minSlowDuration). Trace ids are created for every request either way.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "application.tracing.sampling")
+public class TraceSamplingProperties {
+
+    private float probability = 0.01f;
+    private int tracesPerSecond = 10;
+    private Tail tail = new Tail();
+
+    @Getter
+    @Setter
+    public static class Tail {
+
+        private boolean enabled = true;
+        private double slowPercentile = 0.99;
+        private Duration minSlowDuration = Duration.ofMillis(250);
+        // Traces whose local root has not ended yet, the oldest are dropped beyond this.
+        private long maxPendingTraces = 10_000;
+        private Duration maxPendingTime = Duration.ofMinutes(1);
+    }
+}
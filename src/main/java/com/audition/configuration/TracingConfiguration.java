@@ -0,0 +1,39 @@
+package com.audition.configuration;
+
+import brave.TracingCustomizer;
+import brave.handler.SpanHandler;
+import brave.sampler.Sampler;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import zipkin2.Span;
+import zipkin2.reporter.Reporter;
+import zipkin2.reporter.brave.ZipkinSpanHandler;
+
+@Configuration
+public class TracingConfiguration {
+
+    // Replaces the probability sampler Spring Boot would create from management.tracing.sampling.
+    @Bean
+    public Sampler braveSampler(final TraceSamplingProperties properties) {
+        return new BudgetedSampler(properties.getProbability(), properties.getTracesPerSecond());
+    }
+
+    /*
+    Tail sampling needs the spans of unsampled traces, Brave then records them instead of using noop spans. Only the
+    spans of kept traces are exported, the default Zipkin handler still exports sampled traces alone.
+     */
+    @Bean
+    public TracingCustomizer tailSamplingCustomizer(final TraceSamplingProperties properties,
+        final ObjectProvider<Reporter<Span>> spanReporter, final MeterRegistry meterRegistry) {
+        return builder -> {
+            final Reporter<Span> reporter = spanReporter.getIfAvailable();
+            if (properties.getTail().isEnabled() && reporter != null) {
+                final SpanHandler exporter = ZipkinSpanHandler.newBuilder(reporter).alwaysReportSpans(true).build();
+                builder.alwaysSampleLocal()
+                    .addSpanHandler(new TailSamplingSpanHandler(exporter, properties.getTail(), meterRegistry));
+            }
+        };
+    }
+}
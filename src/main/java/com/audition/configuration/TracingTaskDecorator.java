@@ -0,0 +1,31 @@
+package com.audition.configuration;
+
+import com.audition.common.timing.RequestTiming;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import org.springframework.core.task.TaskDecorator;
+
+/*
+Carries the span of the submitting thread over to the executor thread, so work that is fanned out keeps the trace
+(and the traceId/spanId logging MDC) of the request that started it. The request's phase timing is carried over as
+well, see RequestTiming.
+ */
+public class TracingTaskDecorator implements TaskDecorator {
+
+    private final Tracer tracer;
+
+    public TracingTaskDecorator(final Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    public Runnable decorate(final Runnable runnable) {
+        final Span span = tracer.currentSpan();
+        final Runnable timed = RequestTiming.handOver(runnable);
+        return () -> {
+            try (Tracer.SpanInScope ignored = tracer.withSpan(span)) {
+                timed.run();
+            }
+        };
+    }
+}
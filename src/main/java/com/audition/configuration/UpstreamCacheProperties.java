@@ -0,0 +1,40 @@
+package com.audition.configuration;
+
+import java.time.Duration;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/*
+Settings for the in-process caches kept in front of the upstream api. An entry is fresh for refreshAfterWrite. For
+staleWhileRevalidate after that it is still served (with a Warning header) while it is reloaded in the background,
+later requests wait for a reload. When the upstream fails the last known good copy is served until expireAfterWrite.
+Each cache is bounded either by maximumWeight (when set) or by maximumSize.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "application.cache")
+public class UpstreamCacheProperties {
+
+    private CacheSpec posts = new CacheSpec(Duration.ofHours(1), Duration.ofMinutes(4), Duration.ofMinutes(1), 1, 0);
+    private CacheSpec post = new CacheSpec(Duration.ofHours(1), Duration.ofMinutes(8), Duration.ofMinutes(2), 1_000,
+        0);
+    private CacheSpec comments = new CacheSpec(Duration.ofHours(1), Duration.ofMinutes(8), Duration.ofMinutes(2), 0,
+        2_000_000);
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CacheSpec {
+
+        private Duration expireAfterWrite;
+        private Duration refreshAfterWrite;
+        private Duration staleWhileRevalidate;
+        private long maximumSize;
+        // Weight is the number of characters of text held by an entry, see AuditionService weighers.
+        private long maximumWeight;
+    }
+}
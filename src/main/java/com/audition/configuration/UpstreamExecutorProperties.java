@@ -0,0 +1,15 @@
+package com.audition.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "application.upstream-executor")
+public class UpstreamExecutorProperties {
+
+    private int corePoolSize = 16;
+    private int maxPoolSize = 64;
+    private int queueCapacity = 256;
+}
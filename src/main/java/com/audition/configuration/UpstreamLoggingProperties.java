@@ -0,0 +1,39 @@
+package com.audition.configuration;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/*
+Settings for logging upstream calls, see LoggingInterceptor. Rates are probabilities between 0 and 1. A rate configured
+for the response status wins over a route rate, which wins over the default success or error rate.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "application.logging.upstream")
+public class UpstreamLoggingProperties {
+
+    // Bytes of a request or response body included in a log line, the rest is cut off.
+    private int maxBodyBytes = 2048;
+    private double successSampleRate = 0.01;
+    private double errorSampleRate = 1.0;
+    private Map<Integer, Double> statusSampleRates = new HashMap<>();
+    private List<RouteSampling> routes = new ArrayList<>();
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RouteSampling {
+
+        // Matched against the start of the upstream request path, the longest matching prefix is used.
+        private String pathPrefix;
+        private double successSampleRate;
+    }
+}
@@ -0,0 +1,64 @@
+package com.audition.configuration;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/*
+Circuit breaker, bulkhead and retry settings per upstream endpoint: posts is the /posts list, post is /posts/{id} and
+comments is /posts/{id}/comments. Only server errors and I/O failures count as failures and are retried.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "application.resilience")
+public class UpstreamResilienceProperties {
+
+    private EndpointSpec posts = new EndpointSpec();
+    private EndpointSpec post = new EndpointSpec();
+    private EndpointSpec comments = new EndpointSpec();
+
+    @Getter
+    @Setter
+    public static class EndpointSpec {
+
+        private CircuitBreakerSpec circuitBreaker = new CircuitBreakerSpec();
+        private BulkheadSpec bulkhead = new BulkheadSpec();
+        private RetrySpec retry = new RetrySpec();
+    }
+
+    @Getter
+    @Setter
+    public static class CircuitBreakerSpec {
+
+        // Percentages of failed and of slow calls in the sliding window that open the breaker.
+        private float failureRateThreshold = 50;
+        private float slowCallRateThreshold = 100;
+        private Duration slowCallDurationThreshold = Duration.ofSeconds(2);
+        private int slidingWindowSize = 50;
+        private int minimumNumberOfCalls = 20;
+        private Duration waitDurationInOpenState = Duration.ofSeconds(10);
+        private int permittedCallsInHalfOpenState = 5;
+    }
+
+    @Getter
+    @Setter
+    public static class BulkheadSpec {
+
+        private int maxConcurrentCalls = 50;
+        // Zero rejects a call right away when all permits are taken.
+        private Duration maxWaitDuration = Duration.ZERO;
+    }
+
+    @Getter
+    @Setter
+    public static class RetrySpec {
+
+        // Total number of attempts, 1 disables retries.
+        private int maxAttempts = 3;
+        private Duration initialInterval = Duration.ofMillis(100);
+        private double multiplier = 2.0;
+        // Each wait is picked at random within +/- this share of the exponential interval.
+        private double randomizationFactor = 0.5;
+    }
+}
@@ -0,0 +1,24 @@
+package com.audition.configuration;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/*
+The project is compiled for Java 17, so Executors.newVirtualThreadPerTaskExecutor() is looked up at runtime. Virtual
+threads are used when the application runs on Java 21 or later, older runtimes fall back to platform threads.
+ */
+public final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    public static Optional<ExecutorService> newVirtualThreadPerTaskExecutor() {
+        try {
+            return Optional.of((ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor")
+                .invoke(null));
+        } catch (final ReflectiveOperationException e) {
+            return Optional.empty();
+        }
+    }
+}
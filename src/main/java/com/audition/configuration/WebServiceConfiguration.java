@@ -1,18 +1,47 @@
 package com.audition.configuration;
 
+import com.audition.common.logging.LoggingInterceptor;
+import com.audition.common.timing.UpstreamTimingInterceptor;
+import com.audition.integration.UpstreamErrorHandler;
+import com.audition.web.CachedJsonHttpMessageConverter;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.PropertyNamingStrategies;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.ReadTimeoutHandler;
+import io.netty.handler.timeout.WriteTimeoutHandler;
 import java.text.SimpleDateFormat;
+import java.time.Duration;
 import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.io.SocketConfig;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.client.BufferingClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
 
 @Configuration
@@ -34,21 +63,123 @@ public class WebServiceConfiguration implements WebMvcConfigurer {
         mapper.setPropertyNamingStrategy(PropertyNamingStrategies.LOWER_CAMEL_CASE);
         mapper.setSerializationInclusion(Include.NON_EMPTY);
         mapper.disable(SerializationFeature.WRITE_DATE_TIMESTAMPS_AS_NANOSECONDS);
+        // Models declare @JsonFilter for field projection, without a filter for a request all fields are written.
+        mapper.setFilterProvider(new SimpleFilterProvider().setFailOnUnknownId(false));
         return mapper;
     }
 
     @Bean
-    public RestTemplate restTemplate() {
-        final RestTemplate restTemplate = new RestTemplate(
-            new BufferingClientHttpRequestFactory(createClientFactory()));
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(final ObjectMapper objectMapper,
+        final ServerProperties serverProperties, final MeterRegistry meterRegistry) {
+        // Replaces the default Jackson converter, cached response bodies are encoded (and gzipped) once per version.
+        return new CachedJsonHttpMessageConverter(objectMapper, serverProperties.getCompression(), meterRegistry);
+    }
+
+    @Bean
+    public RestTemplate restTemplate(final ClientHttpRequestFactory upstreamRequestFactory,
+        final LoggingInterceptor loggingInterceptor, final UpstreamTimingInterceptor upstreamTimingInterceptor) {
+        // Responses are not buffered so that large bodies can be streamed, see AuditionIntegrationClient.streamPosts.
+        final RestTemplate restTemplate = new RestTemplate(upstreamRequestFactory);
         // TODO-Resolved use object mapper - Created Above
         // TODO-Resolved create a logging interceptor that logs request/response for rest template calls.
+        // The interceptor only copies what the caller reads, the response stays unbuffered.
+        restTemplate.getInterceptors().add(loggingInterceptor);
+        // Innermost, so that only the upstream call and reading its body are timed.
+        restTemplate.getInterceptors().add(upstreamTimingInterceptor);
+        restTemplate.setErrorHandler(new UpstreamErrorHandler());
         return restTemplate;
     }
 
-    private SimpleClientHttpRequestFactory createClientFactory() {
+    @Bean
+    public ClientHttpRequestFactory upstreamRequestFactory(final ConnectionProperties connectionProperties,
+        final MeterRegistry meterRegistry) {
+        if (connectionProperties.getClient() == ConnectionProperties.ClientType.SIMPLE) {
+            return createSimpleClientFactory(connectionProperties);
+        }
+        return createPooledClientFactory(connectionProperties, meterRegistry);
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider upstreamConnectionProvider(final ConnectionProperties connectionProperties) {
+        return ConnectionProvider.builder("upstream")
+            .maxConnections(connectionProperties.getMaxConnectionsPerRoute())
+            // Waiting requests are bounded by the acquire timeout rather than by a queue length.
+            .pendingAcquireMaxCount(-1)
+            .pendingAcquireTimeout(connectionProperties.getPoolAcquireTimeout())
+            .maxIdleTime(connectionProperties.getIdleTimeout())
+            .build();
+    }
+
+    @Bean
+    public WebClient upstreamWebClient(final WebClient.Builder webClientBuilder,
+        final ConnectionProvider upstreamConnectionProvider, final ConnectionProperties connectionProperties,
+        @Value("${spring.application.externalApiUrl}") final String externalApiUrl) {
+        final HttpClient httpClient = HttpClient.create(upstreamConnectionProvider)
+            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectionProperties.getConnectTimeout().toMillis())
+            .responseTimeout(connectionProperties.getResponseTimeout())
+            .doOnConnected(connection -> connection
+                .addHandlerLast(new ReadTimeoutHandler(connectionProperties.getReadTimeout().toMillis(),
+                    TimeUnit.MILLISECONDS))
+                .addHandlerLast(new WriteTimeoutHandler(connectionProperties.getWriteTimeout().toMillis(),
+                    TimeUnit.MILLISECONDS)));
+        return webClientBuilder
+            .baseUrl(externalApiUrl)
+            .clientConnector(new ReactorClientHttpConnector(httpClient))
+            .build();
+    }
+
+    private HttpComponentsClientHttpRequestFactory createPooledClientFactory(
+        final ConnectionProperties connectionProperties, final MeterRegistry meterRegistry) {
+        final PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+            .setMaxConnTotal(connectionProperties.getMaxConnections())
+            .setMaxConnPerRoute(connectionProperties.getMaxConnectionsPerRoute())
+            .setDefaultSocketConfig(SocketConfig.custom()
+                .setSoTimeout(toTimeout(connectionProperties.getReadTimeout()))
+                .build())
+            .build();
+        final RequestConfig requestConfig = RequestConfig.custom()
+            .setConnectTimeout(toTimeout(connectionProperties.getConnectTimeout()))
+            .setConnectionRequestTimeout(toTimeout(connectionProperties.getPoolAcquireTimeout()))
+            .setResponseTimeout(toTimeout(connectionProperties.getResponseTimeout()))
+            .build();
+        registerPoolGauges(connectionManager, meterRegistry);
+        // Connections are kept alive between calls and closed once idle for longer than idleTimeout.
+        return new HttpComponentsClientHttpRequestFactory(HttpClients.custom()
+            .setConnectionManager(connectionManager)
+            .setDefaultRequestConfig(requestConfig)
+            .evictExpiredConnections()
+            .evictIdleConnections(TimeValue.ofMilliseconds(connectionProperties.getIdleTimeout().toMillis()))
+            .build());
+    }
+
+    private SimpleClientHttpRequestFactory createSimpleClientFactory(final ConnectionProperties connectionProperties) {
         final SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
         requestFactory.setOutputStreaming(false);
+        requestFactory.setConnectTimeout((int) connectionProperties.getConnectTimeout().toMillis());
+        requestFactory.setReadTimeout((int) connectionProperties.getReadTimeout().toMillis());
         return requestFactory;
     }
+
+    private void registerPoolGauges(final PoolingHttpClientConnectionManager connectionManager,
+        final MeterRegistry meterRegistry) {
+        registerPoolGauge(meterRegistry, connectionManager, "leased", PoolStats::getLeased);
+        registerPoolGauge(meterRegistry, connectionManager, "available", PoolStats::getAvailable);
+        registerPoolGauge(meterRegistry, connectionManager, "pending", PoolStats::getPending);
+        registerPoolGauge(meterRegistry, connectionManager, "max", PoolStats::getMax);
+    }
+
+    private void registerPoolGauge(final MeterRegistry meterRegistry,
+        final PoolingHttpClientConnectionManager connectionManager, final String state,
+        final ToDoubleFunction<PoolStats> value) {
+        Gauge.builder("http.client.pool.connections", connectionManager,
+                manager -> value.applyAsDouble(manager.getTotalStats()))
+            .description("Connections of the upstream http client pool")
+            .tag("client", "upstream")
+            .tag("state", state)
+            .register(meterRegistry);
+    }
+
+    private static Timeout toTimeout(final Duration duration) {
+        return Timeout.ofMilliseconds(duration.toMillis());
+    }
 }
@@ -1,12 +1,27 @@
 package com.audition.integration;
 
 import com.audition.common.exception.SystemException;
+import com.audition.configuration.ExecutorConfiguration;
+import com.audition.configuration.UpstreamResilienceProperties;
 import com.audition.model.AuditionPost;
 import com.audition.model.Comment;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
 import io.micrometer.tracing.annotation.NewSpan;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 import lombok.Setter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.core.ParameterizedTypeReference;
@@ -14,7 +29,6 @@ import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
@@ -24,11 +38,35 @@ import org.springframework.web.client.RestTemplate;
 public class AuditionIntegrationClient {
 
     private RestTemplate restTemplate;
+    private final Executor upstreamExecutor;
+    private final SingleFlight singleFlight;
+    private final UpstreamResilience resilience;
+    private final ConditionalResponses conditionalResponses;
     private final static String RESOURCE_POST = "posts";
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @SuppressFBWarnings
     public AuditionIntegrationClient(RestTemplate restTemplate) {
+        // Without an executor the fan-out calls run one after another on the calling thread.
+        this(restTemplate, Runnable::run, Metrics.globalRegistry,
+            new UpstreamResilience(new UpstreamResilienceProperties(), Metrics.globalRegistry));
+    }
+
+    @Autowired
+    @SuppressFBWarnings
+    public AuditionIntegrationClient(RestTemplate restTemplate,
+        @Qualifier(ExecutorConfiguration.UPSTREAM_EXECUTOR) Executor upstreamExecutor, MeterRegistry meterRegistry,
+        UpstreamResilience resilience) {
         this.restTemplate = restTemplate;
+        this.upstreamExecutor = upstreamExecutor;
+        // Concurrent requests for the same upstream URL share one call, e.g. cold cache entries after a deploy.
+        this.singleFlight = new SingleFlight(meterRegistry);
+        // Coalesced callers share one protected call, retries and breaker decisions are made once per group.
+        this.resilience = resilience;
+        // Refreshes of unchanged resources are answered with 304 and reuse the objects read the last time.
+        this.conditionalResponses = new ConditionalResponses(meterRegistry);
     }
 
     @Value("${spring.application.externalApiUrl}")
@@ -38,58 +76,91 @@ public class AuditionIntegrationClient {
     @NewSpan("Invoke external api endpoint /posts")
     public List<AuditionPost> getPosts() {
         // TODO-Resolved make RestTemplate call to get Posts from https://jsonplaceholder.typicode.com/posts
-        try {
+        final String url = String.format("%s/%s", externalApiUrl, RESOURCE_POST);
+        return fetch(UpstreamResilience.POSTS, url, () -> {
+            try {
+                return conditionalResponses.get(UpstreamResilience.POSTS, url, getEntityWithHeaders().getHeaders(),
+                    entity -> restTemplate.exchange(url, HttpMethod.GET, entity,
+                        new ParameterizedTypeReference<List<AuditionPost>>() {
+                        }));
+            } catch (final HttpClientErrorException e) {
+                throw new SystemException(e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR.value(), e);
+            }
+        });
+    }
 
-            ResponseEntity<List<AuditionPost>> auditionResponse =
-                restTemplate.exchange(String.format("%s/%s", externalApiUrl, RESOURCE_POST),
-                    HttpMethod.GET, getEntityWithHeaders(), new ParameterizedTypeReference<List<AuditionPost>>() {
+    /*
+    Reads the upstream /posts array one element at a time and hands every post matching the filter to the consumer,
+    so neither the response body nor the full list of posts is ever held in memory.
+     */
+    @NewSpan("Invoke external api endpoint /posts")
+    public void streamPosts(final Predicate<AuditionPost> filter, final Consumer<AuditionPost> consumer) {
+        // Posts are handed on while the response is read, a failed call cannot be repeated.
+        resilience.executeWithoutRetry(UpstreamResilience.POSTS, () -> {
+            try {
+                return restTemplate.execute(String.format("%s/%s", externalApiUrl, RESOURCE_POST), HttpMethod.GET,
+                    request -> request.getHeaders().putAll(getEntityWithHeaders().getHeaders()),
+                    response -> {
+                        try (JsonParser parser = objectMapper.getFactory().createParser(response.getBody())) {
+                            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                                throw new SystemException("Upstream /posts did not return a JSON array",
+                                    HttpStatus.INTERNAL_SERVER_ERROR.value());
+                            }
+                            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                                final AuditionPost auditionPost = objectMapper.readValue(parser, AuditionPost.class);
+                                if (filter.test(auditionPost)) {
+                                    consumer.accept(auditionPost);
+                                }
+                            }
+                        }
+                        return null;
                     });
-            List<AuditionPost> auditionList = auditionResponse.getBody();
-            return auditionList;
-        } catch (final HttpClientErrorException e) {
-            throw new SystemException(e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR.value(), e);
-        }
+            } catch (final HttpClientErrorException e) {
+                throw new SystemException(e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR.value(), e);
+            }
+        });
     }
 
     @NewSpan("Invoke external api endpoint /posts/{id}")
     public AuditionPost getPostById(final String id) {
         // TODO-Resolved get post by post ID call from https://jsonplaceholder.typicode.com/posts/
-        try {
-            ResponseEntity<AuditionPost> auditionPostEntity =
-                restTemplate.getForEntity(String.format("%s/%s/%s", externalApiUrl, RESOURCE_POST, id),
-                    AuditionPost.class);
-            return auditionPostEntity.getBody();
-        } catch (final HttpClientErrorException e) {
-            if (e.getStatusCode() == HttpStatus.NOT_FOUND) {
-                throw new SystemException("Cannot find a Post with id " + id, "Resource Not Found", 404);
-            } else {
-                // TODO-Resolved Find a better way to handle the exception so that the original error message is not lost. Feel free to change this function.
-                throw new SystemException(e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR.value(), e);
+        final String url = String.format("%s/%s/%s", externalApiUrl, RESOURCE_POST, id);
+        return fetch(UpstreamResilience.POST, url, () -> {
+            try {
+                return conditionalResponses.get(UpstreamResilience.POST, url, new HttpHeaders(),
+                    entity -> restTemplate.exchange(url, HttpMethod.GET, entity, AuditionPost.class));
+            } catch (final HttpClientErrorException e) {
+                if (e.getStatusCode() == HttpStatus.NOT_FOUND) {
+                    throw SystemException.clientError("Cannot find a Post with id " + id, "Resource Not Found", 404);
+                } else {
+                    // TODO-Resolved Find a better way to handle the exception so that the original error message is not lost. Feel free to change this function.
+                    throw new SystemException(e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR.value(), e);
+                }
             }
-        }
+        });
     }
 
     // TODO-Resolved Write a method GET comments for a post from https://jsonplaceholder.typicode.com/posts/{postId}/comments - the comments must be returned as part of the post.
     @NewSpan("Invoke external api endpoint /posts/{postId}/comments")
     public AuditionPost getPostWithComments(final String postId) {
         // TODO-Resolved get post by post ID call from https://jsonplaceholder.typicode.com/posts/
+        // Both upstream calls are issued at the same time. The comments are joined first so a missing post is still
+        // reported as "Cannot find comments for a Post", as it was when the calls ran one after another.
+        final CompletableFuture<List<Comment>> commentsFuture =
+            CompletableFuture.supplyAsync(() -> getPostComments(postId), upstreamExecutor);
+        final CompletableFuture<AuditionPost> postFuture =
+            CompletableFuture.supplyAsync(() -> getPostById(postId), upstreamExecutor);
+        final List<Comment> comments;
         try {
-            ResponseEntity<List<Comment>> postCommentsResponse =
-                restTemplate.exchange(String.format("%s/%s/%s/%s", externalApiUrl, RESOURCE_POST, postId, "comments"),
-                    HttpMethod.GET, getEntityWithHeaders(), new ParameterizedTypeReference<>() {
-                    });
-            AuditionPost auditionPost = getPostById(postId);
-            auditionPost.setComments(postCommentsResponse.getBody());
-            return auditionPost;
-        } catch (final HttpClientErrorException e) {
-            if (e.getStatusCode() == HttpStatus.NOT_FOUND) {
-                throw new SystemException("Cannot find comments for a Post with id " + postId, "Resource Not Found",
-                    404);
-            } else {
-                // TODO-Resolved Find a better way to handle the exception so that the original error message is not lost. Feel free to change this function.
-                throw new SystemException(e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR.value(), e);
-            }
+            comments = join(commentsFuture);
+        } catch (final RuntimeException e) {
+            // Nobody reads the post anymore. A call still waiting for a thread is skipped, one in flight completes.
+            postFuture.cancel(true);
+            throw e;
         }
+        final AuditionPost auditionPost = join(postFuture);
+        return new AuditionPost(auditionPost.getUserId(), auditionPost.getId(), auditionPost.getTitle(),
+            auditionPost.getBody(), comments);
     }
 
     // TODO-Resolved write a method. GET comments for a particular Post from https://jsonplaceholder.typicode.com/comments?postId={postId}.
@@ -97,28 +168,52 @@ public class AuditionIntegrationClient {
     @NewSpan("Invoke external api endpoint /posts/{postId}/comments")
     public List<Comment> getPostComments(final String postId) {
         // TODO-Resolved get post by post ID call from https://jsonplaceholder.typicode.com/posts/
+        final String url = String.format("%s/%s/%s/%s", externalApiUrl, RESOURCE_POST, postId, "comments");
+        return fetch(UpstreamResilience.COMMENTS, url, () -> {
+            try {
+                return conditionalResponses.get(UpstreamResilience.COMMENTS, url,
+                    getEntityWithHeaders().getHeaders(), entity -> restTemplate.exchange(url, HttpMethod.GET, entity,
+                        new ParameterizedTypeReference<List<Comment>>() {
+                        }));
+            } catch (final HttpClientErrorException e) {
+                if (e.getStatusCode() == HttpStatus.NOT_FOUND) {
+                    throw SystemException.clientError("Cannot find comments for a Post with id " + postId,
+                        "Resource Not Found", 404);
+                } else {
+                    // TODO-Resolved Find a better way to handle the exception so that the original error message is not lost. Feel free to change this function.
+                    throw new SystemException(e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR.value(), e);
+                }
+            }
+        });
+    }
+
+    private <T> T fetch(final String endpoint, final String url, final Supplier<T> call) {
+        return singleFlight.execute(endpoint, url, () -> resilience.execute(endpoint, call));
+    }
+
+    private static <T> T join(final CompletableFuture<T> future) {
         try {
-            ResponseEntity<List<Comment>> postCommentsResponse =
-                restTemplate.exchange(String.format("%s/%s/%s/%s", externalApiUrl, RESOURCE_POST, postId, "comments"),
-                    HttpMethod.GET, getEntityWithHeaders(), new ParameterizedTypeReference<List<Comment>>() {
-                    });
-            return postCommentsResponse.getBody();
-        } catch (final HttpClientErrorException e) {
-            if (e.getStatusCode() == HttpStatus.NOT_FOUND) {
-                throw new SystemException("Cannot find comments for a Post with id " + postId, "Resource Not Found",
-                    404);
-            } else {
-                // TODO-Resolved Find a better way to handle the exception so that the original error message is not lost. Feel free to change this function.
-                throw new SystemException(e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR.value(), e);
+            return future.join();
+        } catch (final CompletionException e) {
+            // Rethrow what the upstream call raised so the SystemException status mapping is unchanged.
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
             }
+            throw new SystemException(e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR.value(), e);
         }
     }
 
     private HttpEntity<String> getEntityWithHeaders() {
+        HttpEntity<String> entity = new HttpEntity<>(upstreamHeaders());
+        return entity;
+    }
+
+    // Sent with every upstream request, by ReactiveAuditionIntegrationClient as well.
+    static HttpHeaders upstreamHeaders() {
         HttpHeaders headers = new HttpHeaders();
         headers.set("Authorization", "Authorization");
-        headers.set("Other Header", "Some other header");
-        HttpEntity<String> entity = new HttpEntity<>(headers);
-        return entity;
+        // A header name cannot contain spaces, the reactive (Netty) client rejects "Other Header".
+        headers.set("Other-Header", "Some other header");
+        return headers;
     }
 }
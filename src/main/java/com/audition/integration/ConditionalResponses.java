@@ -0,0 +1,64 @@
+package com.audition.integration;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.function.Function;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/*
+Remembers the validators (ETag, Last-Modified) of the last successful response per upstream URL together with the body
+it was deserialized into. They are sent back as If-None-Match and If-Modified-Since, and a 304 answer reuses the stored
+body: nothing is transferred or parsed when the upstream data did not change.
+ */
+final class ConditionalResponses {
+
+    static final String NOT_MODIFIED_METER = "upstream.responses.not.modified";
+    // One entry per upstream URL, enough for the post and comment ids kept by the service caches.
+    private static final long MAX_ENTRIES = 10_000;
+
+    private record Validated(String etag, long lastModified, Object body) {
+
+    }
+
+    private final Cache<String, Validated> responses = Caffeine.newBuilder().maximumSize(MAX_ENTRIES).build();
+    private final MeterRegistry meterRegistry;
+
+    ConditionalResponses(final MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @SuppressWarnings("unchecked")
+    <T> T get(final String resource, final String url, final HttpHeaders headers,
+        final Function<HttpEntity<Void>, ResponseEntity<T>> exchange) {
+        final Validated cached = responses.getIfPresent(url);
+        final HttpHeaders requestHeaders = new HttpHeaders();
+        requestHeaders.putAll(headers);
+        if (cached != null) {
+            if (cached.etag() != null) {
+                requestHeaders.setIfNoneMatch(cached.etag());
+            }
+            if (cached.lastModified() >= 0) {
+                requestHeaders.setIfModifiedSince(cached.lastModified());
+            }
+        }
+        final ResponseEntity<T> response = exchange.apply(new HttpEntity<>(requestHeaders));
+        if (cached != null && response.getStatusCode().value() == HttpStatus.NOT_MODIFIED.value()) {
+            meterRegistry.counter(NOT_MODIFIED_METER, "resource", resource).increment();
+            // The same url always maps to the same body type.
+            return (T) cached.body();
+        }
+        final T body = response.getBody();
+        final String etag = response.getHeaders().getETag();
+        final long lastModified = response.getHeaders().getLastModified();
+        if (body != null && (etag != null || lastModified >= 0)) {
+            responses.put(url, new Validated(etag, lastModified, body));
+        } else {
+            responses.invalidate(url);
+        }
+        return body;
+    }
+}
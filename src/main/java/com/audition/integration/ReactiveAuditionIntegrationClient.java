@@ -0,0 +1,91 @@
+package com.audition.integration;
+
+import com.audition.common.exception.SystemException;
+import com.audition.model.AuditionPost;
+import com.audition.model.Comment;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Signal;
+
+/*
+Non-blocking counterpart of AuditionIntegrationClient. Upstream calls run on the WebClient event loop, no thread is
+held while a response is outstanding. Requests carry the same headers and client errors are mapped to SystemException
+the same way as in the blocking client.
+ */
+@Component
+public class ReactiveAuditionIntegrationClient {
+
+    private static final String RESOURCE_POSTS = "/posts";
+    private static final String RESOURCE_POST = "/posts/{id}";
+    private static final String RESOURCE_POST_COMMENTS = "/posts/{id}/comments";
+    private static final String NOT_FOUND_TITLE = "Resource Not Found";
+
+    private final WebClient upstreamWebClient;
+
+    @SuppressFBWarnings
+    public ReactiveAuditionIntegrationClient(@Qualifier("upstreamWebClient") final WebClient upstreamWebClient) {
+        this.upstreamWebClient = upstreamWebClient.mutate()
+            .defaultHeaders(headers -> headers.addAll(AuditionIntegrationClient.upstreamHeaders()))
+            .build();
+    }
+
+    public Flux<AuditionPost> getPosts() {
+        return upstreamWebClient.get().uri(RESOURCE_POSTS).accept(MediaType.APPLICATION_JSON)
+            .retrieve()
+            .bodyToFlux(AuditionPost.class)
+            .onErrorMap(WebClientResponseException.class, e -> mapClientError(e, null));
+    }
+
+    public Mono<AuditionPost> getPostById(final String id) {
+        return upstreamWebClient.get().uri(RESOURCE_POST, id).accept(MediaType.APPLICATION_JSON)
+            .retrieve()
+            .bodyToMono(AuditionPost.class)
+            .onErrorMap(WebClientResponseException.class,
+                e -> mapClientError(e, "Cannot find a Post with id " + id));
+    }
+
+    public Flux<Comment> getPostComments(final String postId) {
+        return upstreamWebClient.get().uri(RESOURCE_POST_COMMENTS, postId).accept(MediaType.APPLICATION_JSON)
+            .retrieve()
+            .bodyToFlux(Comment.class)
+            .onErrorMap(WebClientResponseException.class,
+                e -> mapClientError(e, "Cannot find comments for a Post with id " + postId));
+    }
+
+    public Mono<AuditionPost> getPostWithComments(final String postId) {
+        // Both requests are subscribed to at once and both are awaited. Errors are reported comments first, like the
+        // blocking client, so a missing post is always "Cannot find comments for a Post".
+        return Mono.zip(getPostComments(postId).collectList().materialize(), getPostById(postId).materialize())
+            .flatMap(signals -> {
+                final Signal<List<Comment>> comments = signals.getT1();
+                final Signal<AuditionPost> post = signals.getT2();
+                if (comments.hasError()) {
+                    return Mono.error(comments.getThrowable());
+                }
+                if (post.hasError()) {
+                    return Mono.error(post.getThrowable());
+                }
+                return Mono.justOrEmpty(post.get())
+                    .map(auditionPost -> new AuditionPost(auditionPost.getUserId(), auditionPost.getId(),
+                        auditionPost.getTitle(), auditionPost.getBody(), comments.get()));
+            });
+    }
+
+    private static Throwable mapClientError(final WebClientResponseException e, final String notFoundMessage) {
+        if (!e.getStatusCode().is4xxClientError()) {
+            return e;
+        }
+        if (notFoundMessage != null && e.getStatusCode().value() == HttpStatus.NOT_FOUND.value()) {
+            return SystemException.clientError(notFoundMessage, NOT_FOUND_TITLE, HttpStatus.NOT_FOUND.value());
+        }
+        return new SystemException(e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR.value(), e);
+    }
+}
@@ -0,0 +1,74 @@
+package com.audition.integration;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/*
+Deduplicates concurrent identical upstream calls. The first caller for a key runs the call, callers arriving while it is
+in flight wait for the same result or exception instead of issuing their own request. Nothing is kept once the call
+completes, caching is left to the service layer.
+ */
+class SingleFlight {
+
+    static final String COALESCED_METER = "upstream.requests.coalesced";
+    static final String IN_FLIGHT_METER = "upstream.requests.in.flight";
+
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Counter> coalescedCounters = new ConcurrentHashMap<>();
+
+    SingleFlight(final MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        Gauge.builder(IN_FLIGHT_METER, inFlight, Map::size)
+            .description("Distinct upstream calls currently in flight")
+            .register(meterRegistry);
+    }
+
+    @SuppressWarnings("unchecked")
+    <T> T execute(final String resource, final String key, final Supplier<T> call) {
+        final CompletableFuture<Object> pending = new CompletableFuture<>();
+        final CompletableFuture<Object> leader = inFlight.putIfAbsent(key, pending);
+        if (leader != null) {
+            coalescedCounter(resource).increment();
+            return (T) join(leader);
+        }
+        try {
+            final T result = call.get();
+            inFlight.remove(key, pending);
+            pending.complete(result);
+            return result;
+        } catch (final RuntimeException | Error e) {
+            inFlight.remove(key, pending);
+            pending.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private Counter coalescedCounter(final String resource) {
+        return coalescedCounters.computeIfAbsent(resource, name -> Counter.builder(COALESCED_METER)
+            .description("Upstream calls answered by an identical request already in flight")
+            .tag("resource", name)
+            .register(meterRegistry));
+    }
+
+    private static Object join(final CompletableFuture<Object> future) {
+        try {
+            return future.join();
+        } catch (final CompletionException e) {
+            // Waiters see the exception the leading call raised, e.g. the SystemException for a missing post.
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.audition.integration;
+
+import java.io.IOException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.DefaultResponseErrorHandler;
+import org.springframework.web.client.HttpClientErrorException;
+
+/*
+Upstream 404s are expected (unknown post ids) and are mapped to a "Resource Not Found" SystemException right away. They
+are raised without reading the body or filling a stack trace, other errors are handled as by the default handler.
+ */
+public class UpstreamErrorHandler extends DefaultResponseErrorHandler {
+
+    @Override
+    protected void handleError(final ClientHttpResponse response, final HttpStatusCode statusCode)
+        throws IOException {
+        if (statusCode.value() == HttpStatus.NOT_FOUND.value()) {
+            throw new NotFound(response.getStatusText(), response.getHeaders());
+        }
+        super.handleError(response, statusCode);
+    }
+
+    static final class NotFound extends HttpClientErrorException {
+
+        private static final long serialVersionUID = 2719346829364018224L;
+
+        NotFound(final String statusText, final HttpHeaders headers) {
+            // The same status instance as HttpClientErrorException.NotFound, callers compare with ==.
+            super(HttpStatus.NOT_FOUND, statusText, headers, null, null);
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+}
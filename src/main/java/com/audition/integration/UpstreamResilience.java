@@ -0,0 +1,135 @@
+package com.audition.integration;
+
+import com.audition.common.exception.SystemException;
+import com.audition.configuration.UpstreamResilienceProperties;
+import com.audition.configuration.UpstreamResilienceProperties.CircuitBreakerSpec;
+import com.audition.configuration.UpstreamResilienceProperties.EndpointSpec;
+import com.audition.configuration.UpstreamResilienceProperties.RetrySpec;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.core.IntervalFunction;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedRetryMetrics;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Map;
+import java.util.function.Supplier;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+/*
+Circuit breaker, bulkhead and retry per upstream endpoint. Calls are wrapped as Retry(CircuitBreaker(Bulkhead(call))),
+so every attempt is recorded by the breaker and holds a bulkhead permit only while it runs. Server errors and I/O
+failures (ResourceAccessException) count as failures and are retried with exponential, jittered backoff; client errors
+such as a missing post pass through untouched. An open breaker or a full bulkhead fails fast with a 503. The registries
+are private to the upstream client, their metrics are exported as resilience4j.* meters.
+ */
+@Component
+public class UpstreamResilience {
+
+    public static final String POSTS = "posts";
+    public static final String POST = "post";
+    public static final String COMMENTS = "comments";
+
+    private static final String SERVICE_UNAVAILABLE = "Service Unavailable";
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+    private final BulkheadRegistry bulkheadRegistry = BulkheadRegistry.ofDefaults();
+    private final RetryRegistry retryRegistry = RetryRegistry.ofDefaults();
+
+    public UpstreamResilience(final UpstreamResilienceProperties properties, final MeterRegistry meterRegistry) {
+        final Map<String, EndpointSpec> specs = Map.of(POSTS, properties.getPosts(), POST, properties.getPost(), COMMENTS,
+            properties.getComments());
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakerRegistry).bindTo(meterRegistry);
+        TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheadRegistry).bindTo(meterRegistry);
+        TaggedRetryMetrics.ofRetryRegistry(retryRegistry).bindTo(meterRegistry);
+        specs.forEach((endpoint, spec) -> {
+            circuitBreakerRegistry.circuitBreaker(name(endpoint), circuitBreakerConfig(spec));
+            bulkheadRegistry.bulkhead(name(endpoint), bulkheadConfig(spec));
+            retryRegistry.retry(name(endpoint), retryConfig(spec));
+        });
+    }
+
+    // For idempotent calls that can be repeated from the start.
+    public <T> T execute(final String endpoint, final Supplier<T> call) {
+        final Supplier<T> protectedCall = CircuitBreaker.decorateSupplier(circuitBreaker(endpoint),
+            Bulkhead.decorateSupplier(bulkhead(endpoint), call));
+        return failFast(endpoint, Retry.decorateSupplier(retryRegistry.retry(name(endpoint)), protectedCall));
+    }
+
+    // For calls that hand data on while they run, e.g. streamed responses, which must not be repeated.
+    public <T> T executeWithoutRetry(final String endpoint, final Supplier<T> call) {
+        return failFast(endpoint, CircuitBreaker.decorateSupplier(circuitBreaker(endpoint),
+            Bulkhead.decorateSupplier(bulkhead(endpoint), call)));
+    }
+
+    public CircuitBreaker.State getState(final String endpoint) {
+        return circuitBreaker(endpoint).getState();
+    }
+
+    private <T> T failFast(final String endpoint, final Supplier<T> call) {
+        try {
+            return call.get();
+        } catch (final CallNotPermittedException e) {
+            throw new SystemException("Upstream " + endpoint + " is unavailable, circuit breaker is open",
+                SERVICE_UNAVAILABLE, HttpStatus.SERVICE_UNAVAILABLE.value(), e);
+        } catch (final BulkheadFullException e) {
+            throw new SystemException("Too many concurrent calls to upstream " + endpoint, SERVICE_UNAVAILABLE,
+                HttpStatus.SERVICE_UNAVAILABLE.value(), e);
+        }
+    }
+
+    private CircuitBreaker circuitBreaker(final String endpoint) {
+        return circuitBreakerRegistry.circuitBreaker(name(endpoint));
+    }
+
+    private Bulkhead bulkhead(final String endpoint) {
+        return bulkheadRegistry.bulkhead(name(endpoint));
+    }
+
+    private static String name(final String endpoint) {
+        return "upstream-" + endpoint;
+    }
+
+    private static CircuitBreakerConfig circuitBreakerConfig(final EndpointSpec spec) {
+        final CircuitBreakerSpec circuitBreaker = spec.getCircuitBreaker();
+        return CircuitBreakerConfig.custom()
+            .failureRateThreshold(circuitBreaker.getFailureRateThreshold())
+            .slowCallRateThreshold(circuitBreaker.getSlowCallRateThreshold())
+            .slowCallDurationThreshold(circuitBreaker.getSlowCallDurationThreshold())
+            .slidingWindowSize(circuitBreaker.getSlidingWindowSize())
+            .minimumNumberOfCalls(circuitBreaker.getMinimumNumberOfCalls())
+            .waitDurationInOpenState(circuitBreaker.getWaitDurationInOpenState())
+            .permittedNumberOfCallsInHalfOpenState(circuitBreaker.getPermittedCallsInHalfOpenState())
+            .recordExceptions(HttpServerErrorException.class, ResourceAccessException.class)
+            .build();
+    }
+
+    private static BulkheadConfig bulkheadConfig(final EndpointSpec spec) {
+        return BulkheadConfig.custom()
+            .maxConcurrentCalls(spec.getBulkhead().getMaxConcurrentCalls())
+            .maxWaitDuration(spec.getBulkhead().getMaxWaitDuration())
+            .build();
+    }
+
+    private static RetryConfig retryConfig(final EndpointSpec spec) {
+        final RetrySpec retry = spec.getRetry();
+        return RetryConfig.custom()
+            .maxAttempts(Math.max(1, retry.getMaxAttempts()))
+            .intervalFunction(IntervalFunction.ofExponentialRandomBackoff(retry.getInitialInterval(),
+                retry.getMultiplier(), retry.getRandomizationFactor()))
+            .retryExceptions(HttpServerErrorException.class, ResourceAccessException.class)
+            .build();
+    }
+}
@@ -1,5 +1,6 @@
 package com.audition.model;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import com.fasterxml.jackson.annotation.JsonProperty;
@@ -14,10 +15,14 @@ import lombok.Setter;
 @Setter(onMethod_ = @SuppressFBWarnings({"EI_EXPOSE_REP2", "EI_EXPOSE_REP"}))
 @Getter(onMethod_ = @SuppressFBWarnings({"EI_EXPOSE_REP2", "EI_EXPOSE_REP"}))
 @JsonInclude(Include.NON_NULL)
+@JsonFilter(AuditionPost.FIELDS_FILTER)
 @AllArgsConstructor(onConstructor_ = @SuppressFBWarnings({"EI_EXPOSE_REP2", "EI_EXPOSE_REP"}))
 @NoArgsConstructor
 public class AuditionPost {
 
+    // Lets a response select the fields it writes, see FieldProjectionAdvice.
+    public static final String FIELDS_FILTER = "auditionPostFields";
+
     private int userId;
     private int id;
     private String title;
@@ -1,5 +1,6 @@
 package com.audition.model;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -9,8 +10,12 @@ import lombok.Setter;
 @Setter
 @AllArgsConstructor
 @NoArgsConstructor
+@JsonFilter(Comment.FIELDS_FILTER)
 public class Comment {
 
+    // Lets a response select the fields it writes, see FieldProjectionAdvice.
+    public static final String FIELDS_FILTER = "commentFields";
+
     private int postId;
     private int id;
     private String name;
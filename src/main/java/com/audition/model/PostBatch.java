@@ -0,0 +1,29 @@
+package com.audition.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/*
+Body of POST /posts/batch, e.g. {"ids": [1, 2, 3], "include": "comments"}. Same parameters as the GET variant.
+ */
+@Setter(onMethod_ = @SuppressFBWarnings({"EI_EXPOSE_REP2", "EI_EXPOSE_REP"}))
+@Getter(onMethod_ = @SuppressFBWarnings({"EI_EXPOSE_REP2", "EI_EXPOSE_REP"}))
+@AllArgsConstructor(onConstructor_ = @SuppressFBWarnings({"EI_EXPOSE_REP2", "EI_EXPOSE_REP"}))
+@NoArgsConstructor
+public class PostBatch {
+
+    public static final String INCLUDE_COMMENTS = "comments";
+
+    private List<String> ids;
+    private String include;
+
+    @JsonIgnore
+    public boolean isIncludeComments() {
+        return INCLUDE_COMMENTS.equals(include);
+    }
+}
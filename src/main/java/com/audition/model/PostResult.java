@@ -0,0 +1,35 @@
+package com.audition.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/*
+One entry of a batch lookup, in the order the ids were requested. Holds the post for a status of 200, otherwise the
+title and detail of the error, as they would have been returned by /posts/{postId}.
+ */
+@Setter(onMethod_ = @SuppressFBWarnings({"EI_EXPOSE_REP2", "EI_EXPOSE_REP"}))
+@Getter(onMethod_ = @SuppressFBWarnings({"EI_EXPOSE_REP2", "EI_EXPOSE_REP"}))
+@JsonInclude(Include.NON_NULL)
+@AllArgsConstructor(onConstructor_ = @SuppressFBWarnings({"EI_EXPOSE_REP2", "EI_EXPOSE_REP"}))
+@NoArgsConstructor
+public class PostResult {
+
+    private String id;
+    private int status;
+    private AuditionPost post;
+    private String title;
+    private String detail;
+
+    public static PostResult found(final String id, final AuditionPost post) {
+        return new PostResult(id, 200, post, null, null);
+    }
+
+    public static PostResult failed(final String id, final int status, final String title, final String detail) {
+        return new PostResult(id, status, null, title, detail);
+    }
+}
@@ -1,33 +1,356 @@
 package com.audition.service;
 
+import com.audition.common.timing.RequestTiming;
+import com.audition.common.timing.RequestTiming.Phase;
+import com.audition.common.exception.SystemException;
+import com.audition.configuration.BatchProperties;
+import com.audition.configuration.ExecutorConfiguration;
+import com.audition.configuration.UpstreamCacheProperties;
+import com.audition.configuration.UpstreamCacheProperties.CacheSpec;
 import com.audition.integration.AuditionIntegrationClient;
 import com.audition.model.AuditionPost;
 import com.audition.model.Comment;
+import com.audition.model.PostResult;
+import com.audition.service.StaleWhileRevalidateCache.Entry;
+import com.audition.service.StaleWhileRevalidateCache.Served;
+import com.audition.service.query.PostIndex;
+import com.audition.service.query.PostQuery;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.Weigher;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import jakarta.validation.constraints.NotEmpty;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
 @Service
 public class AuditionService {
 
+    private static final String POSTS_KEY = "posts";
+
+    private final AuditionIntegrationClient auditionIntegrationClient;
+    private final StaleWhileRevalidateCache<PostIndex> postsCache;
+    private final StaleWhileRevalidateCache<AuditionPost> postCache;
+    private final StaleWhileRevalidateCache<AuditionPost> postWithCommentsCache;
+    private final StaleWhileRevalidateCache<List<Comment>> commentsCache;
+    private final AtomicReference<PostIndex> lastPostIndex = new AtomicReference<>();
+    private final int maxBatchIds;
+    private final int batchConcurrency;
+    private final Executor batchExecutor;
+    private final Duration batchTimeout;
+
     @Autowired
-    private AuditionIntegrationClient auditionIntegrationClient;
+    public AuditionService(final AuditionIntegrationClient auditionIntegrationClient,
+        final UpstreamCacheProperties cacheProperties, final MeterRegistry meterRegistry,
+        final BatchProperties batchProperties,
+        @Qualifier(ExecutorConfiguration.BATCH_EXECUTOR) final Executor batchExecutor) {
+        this(auditionIntegrationClient, cacheProperties, meterRegistry, Ticker.systemTicker(),
+            ForkJoinPool.commonPool(), batchProperties, batchExecutor);
+    }
+
+    public AuditionService(final AuditionIntegrationClient auditionIntegrationClient,
+        final UpstreamCacheProperties cacheProperties, final MeterRegistry meterRegistry) {
+        this(auditionIntegrationClient, cacheProperties, meterRegistry, Ticker.systemTicker(),
+            ForkJoinPool.commonPool());
+    }
+
+    AuditionService(final AuditionIntegrationClient auditionIntegrationClient,
+        final UpstreamCacheProperties cacheProperties, final MeterRegistry meterRegistry, final Ticker ticker,
+        final Executor refreshExecutor) {
+        // Without an executor the ids missing from a batch are fetched one after another on the calling thread.
+        this(auditionIntegrationClient, cacheProperties, meterRegistry, ticker, refreshExecutor,
+            new BatchProperties(), Runnable::run);
+    }
 
+    AuditionService(final AuditionIntegrationClient auditionIntegrationClient,
+        final UpstreamCacheProperties cacheProperties, final MeterRegistry meterRegistry, final Ticker ticker,
+        final Executor refreshExecutor, final BatchProperties batchProperties, final Executor batchExecutor) {
+        this.auditionIntegrationClient = auditionIntegrationClient;
+        this.maxBatchIds = batchProperties.getMaxIds();
+        this.batchConcurrency = Math.max(1, batchProperties.getMaxConcurrency());
+        this.batchExecutor = batchExecutor;
+        this.batchTimeout = batchProperties.getTimeout();
+        // Caches are keyed by post id, the posts list is held under a single key.
+        // The posts list is cached together with its indexes, both are rebuilt off the request thread on refresh.
+        final CacheFactory factory = new CacheFactory(meterRegistry, ticker, refreshExecutor);
+        this.postsCache = factory.build("upstream.posts", cacheProperties.getPosts(),
+            index -> weighPosts(index.getPosts()), index -> ContentVersion.ofPosts(index.getPosts()),
+            PostIndex::getPosts, key -> indexPosts(auditionIntegrationClient.getPosts()));
+        this.postCache = factory.build("upstream.post", cacheProperties.getPost(),
+            AuditionService::weighPost, ContentVersion::ofPost, Function.identity(),
+            auditionIntegrationClient::getPostById);
+        this.postWithCommentsCache = factory.build("upstream.postWithComments", cacheProperties.getPost(),
+            AuditionService::weighPost, ContentVersion::ofPost, Function.identity(),
+            auditionIntegrationClient::getPostWithComments);
+        this.commentsCache = factory.build("upstream.comments", cacheProperties.getComments(),
+            AuditionService::weighComments, ContentVersion::ofComments, Function.identity(),
+            auditionIntegrationClient::getPostComments);
+    }
 
     public List<AuditionPost> getPosts() {
-        return auditionIntegrationClient.getPosts();
+        return postsCache.get(POSTS_KEY).getPosts();
+    }
+
+    public List<AuditionPost> getPosts(final PostQuery query) {
+        final PostIndex index = postsCache.get(POSTS_KEY);
+        final long start = System.nanoTime();
+        final List<AuditionPost> posts = query.filter(index);
+        RequestTiming.record(Phase.FILTER, System.nanoTime() - start);
+        return posts;
+    }
+
+    // Bypasses the cache, matching posts are passed on while the upstream response is still being read.
+    public void streamPosts(final Predicate<AuditionPost> filter, final Consumer<AuditionPost> consumer) {
+        auditionIntegrationClient.streamPosts(filter, consumer);
     }
 
     public AuditionPost getPostById(final String postId) {
-        return auditionIntegrationClient.getPostById(postId);
+        return postCache.get(postId);
     }
 
     public AuditionPost getPostWithComments(final String postId) {
-        return auditionIntegrationClient.getPostWithComments(postId);
+        return postWithCommentsCache.get(postId);
+    }
+
+    public List<Comment> getPostComments(@NotEmpty final String postId) {
+        return commentsCache.get(postId);
+    }
+
+    /*
+    Posts (with their comments if includeComments) for a batch of ids, one result per distinct id in request order.
+    Cached ids are served right away, the others are fetched in parallel by at most batchConcurrency workers on the
+    batch executor. Errors are reported per id. With tagResponse the response is tagged like a single post when every
+    id was found; callers pass false when the response holds more than these results, e.g. entries for invalid ids.
+     */
+    public Map<String, PostResult> getPostsByIds(final List<String> postIds, final boolean includeComments,
+        final boolean tagResponse) {
+        final StaleWhileRevalidateCache<AuditionPost> cache = batchCache(includeComments);
+        final List<String> distinctIds = List.copyOf(new LinkedHashSet<>(postIds));
+        final Map<String, Lookup> lookups = new ConcurrentHashMap<>();
+        final List<String> misses = new ArrayList<>();
+        for (final String postId : distinctIds) {
+            if (cache.isCached(postId)) {
+                lookups.put(postId, lookup(cache, postId));
+            } else {
+                misses.add(postId);
+            }
+        }
+        fetchInParallel(cache, misses, lookups);
+
+        final Map<String, PostResult> results = new LinkedHashMap<>();
+        boolean allFound = tagResponse;
+        for (final String postId : distinctIds) {
+            final Lookup lookup = lookups.get(postId);
+            results.put(postId, lookup.toResult(postId));
+            allFound &= lookup.served() != null;
+        }
+        if (allFound) {
+            for (final String postId : distinctIds) {
+                lookups.get(postId).served().recordFreshness();
+            }
+        }
+        return results;
+    }
+
+    /*
+    Content versions of fresh cache entries, used to answer conditional requests. They never call the upstream: empty
+    when nothing fresh is cached, the request then goes through the methods above.
+     */
+    public OptionalLong getPostsVersion() {
+        return postsCache.freshVersion(POSTS_KEY);
+    }
+
+    public OptionalLong getPostVersion(final String postId) {
+        return postCache.freshVersion(postId);
+    }
+
+    public OptionalLong getPostWithCommentsVersion(final String postId) {
+        return postWithCommentsCache.freshVersion(postId);
+    }
+
+    public OptionalLong getPostCommentsVersion(final String postId) {
+        return commentsCache.freshVersion(postId);
+    }
+
+    // Combined the same way ResponseFreshness combines the versions recorded by getPostsByIds. Batches the api
+    // rejects as too large have no version.
+    public OptionalLong getPostsByIdsVersion(final List<String> postIds, final boolean includeComments) {
+        if (postIds.isEmpty() || postIds.size() > maxBatchIds) {
+            return OptionalLong.empty();
+        }
+        final StaleWhileRevalidateCache<AuditionPost> cache = batchCache(includeComments);
+        long version = 0;
+        boolean first = true;
+        for (final String postId : new LinkedHashSet<>(postIds)) {
+            final OptionalLong entryVersion = cache.freshVersion(postId);
+            if (entryVersion.isEmpty()) {
+                return OptionalLong.empty();
+            }
+            version = first ? entryVersion.getAsLong() : 31 * version + entryVersion.getAsLong();
+            first = false;
+        }
+        return OptionalLong.of(version);
+    }
+
+    private StaleWhileRevalidateCache<AuditionPost> batchCache(final boolean includeComments) {
+        return includeComments ? postWithCommentsCache : postCache;
+    }
+
+    // Each worker takes the next missing id until none are left, so at most batchConcurrency calls run at a time.
+    private void fetchInParallel(final StaleWhileRevalidateCache<AuditionPost> cache, final List<String> misses,
+        final Map<String, Lookup> lookups) {
+        if (misses.isEmpty()) {
+            return;
+        }
+        final AtomicInteger next = new AtomicInteger();
+        final Runnable worker = () -> {
+            for (int i = next.getAndIncrement(); i < misses.size(); i = next.getAndIncrement()) {
+                final String postId = misses.get(i);
+                lookups.put(postId, lookup(cache, postId));
+            }
+        };
+        final CompletableFuture<?>[] workers = new CompletableFuture<?>[Math.min(batchConcurrency, misses.size())];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = CompletableFuture.runAsync(worker, batchExecutor);
+        }
+        try {
+            CompletableFuture.allOf(workers).get(batchTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (final TimeoutException | ExecutionException e) {
+            // Reported per id below, workers stop taking ids once the batch gave up on them.
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        next.set(misses.size());
+        for (final String postId : misses) {
+            lookups.putIfAbsent(postId, new Lookup(null, new SystemException(
+                "Timed out looking up a Post with id " + postId, "Gateway Timeout",
+                HttpStatus.GATEWAY_TIMEOUT.value())));
+        }
+    }
+
+    private static Lookup lookup(final StaleWhileRevalidateCache<AuditionPost> cache, final String postId) {
+        try {
+            return new Lookup(cache.lookup(postId), null);
+        } catch (final RuntimeException e) {
+            return new Lookup(null, e);
+        }
+    }
+
+    private record Lookup(Served<AuditionPost> served, RuntimeException error) {
+
+        // Errors are described as ExceptionControllerAdvice would describe them for a single post.
+        PostResult toResult(final String postId) {
+            if (served != null) {
+                return PostResult.found(postId, served.value());
+            }
+            if (error instanceof SystemException systemException) {
+                final Integer status = systemException.getStatusCode();
+                return PostResult.failed(postId,
+                    status == null ? HttpStatus.INTERNAL_SERVER_ERROR.value() : status,
+                    systemException.getTitle(), systemException.getMessage());
+            }
+            return PostResult.failed(postId, HttpStatus.INTERNAL_SERVER_ERROR.value(), SystemException.DEFAULT_TITLE,
+                error.getMessage());
+        }
+    }
+
+    // An unchanged upstream list (a 304 answer) comes back as the same instance, its index is still valid.
+    private PostIndex indexPosts(final List<AuditionPost> posts) {
+        final PostIndex last = lastPostIndex.get();
+        if (last != null && last.getPosts() == posts) {
+            return last;
+        }
+        final PostIndex index = PostIndex.of(posts);
+        lastPostIndex.set(index);
+        return index;
+    }
+
+    private record CacheFactory(MeterRegistry meterRegistry, Ticker ticker, Executor refreshExecutor) {
+
+        <V> StaleWhileRevalidateCache<V> build(final String name, final CacheSpec spec,
+            final ToIntFunction<V> weigher, final ToLongFunction<V> versioner,
+            final Function<? super V, ?> responseBody, final Function<String, V> loader) {
+            final Caffeine<Object, Object> builder = Caffeine.newBuilder().recordStats().ticker(ticker)
+                .executor(refreshExecutor);
+            if (spec.getExpireAfterWrite() != null) {
+                builder.expireAfterWrite(spec.getExpireAfterWrite());
+            }
+            if (spec.getRefreshAfterWrite() != null) {
+                // Hot keys are reloaded in the background while the current value keeps being served.
+                builder.refreshAfterWrite(spec.getRefreshAfterWrite());
+            }
+            return new StaleWhileRevalidateCache<>(loader, versioner, responseBody, ticker, spec.getRefreshAfterWrite(),
+                spec.getStaleWhileRevalidate(), cacheLoader -> {
+                    // Caffeine allows only one of the two bounds, weight takes precedence when configured.
+                    final LoadingCache<String, Entry<V>> cache;
+                    if (spec.getMaximumWeight() > 0) {
+                        final Weigher<String, Entry<V>> entryWeigher =
+                            (key, entry) -> weigher.applyAsInt(entry.value());
+                        cache = builder.maximumWeight(spec.getMaximumWeight()).weigher(entryWeigher)
+                            .build(cacheLoader);
+                    } else {
+                        if (spec.getMaximumSize() > 0) {
+                            builder.maximumSize(spec.getMaximumSize());
+                        }
+                        cache = builder.build(cacheLoader);
+                    }
+                    // Exposes hit, miss, eviction and size meters through the application registry (and Prometheus).
+                    return CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+                });
+        }
+    }
+
+    private static int weighPosts(final List<AuditionPost> posts) {
+        int weight = 1;
+        for (final AuditionPost post : posts) {
+            weight += weighPost(post);
+        }
+        return weight;
+    }
+
+    private static int weighPost(final AuditionPost post) {
+        if (post == null) {
+            return 1;
+        }
+        return 1 + length(post.getTitle()) + length(post.getBody()) + weighComments(post.getComments());
+    }
+
+    private static int weighComments(final List<Comment> comments) {
+        int weight = 1;
+        if (comments != null) {
+            for (final Comment comment : comments) {
+                weight += length(comment.getName()) + length(comment.getEmail()) + length(comment.getBody());
+            }
+        }
+        return weight;
     }
 
-    public List<Comment> getPostComments(@NotEmpty String postId) {
-        return auditionIntegrationClient.getPostComments(postId);
+    private static int length(final String value) {
+        return value == null ? 0 : value.length();
     }
 }
@@ -0,0 +1,92 @@
+package com.audition.service;
+
+import com.audition.model.AuditionPost;
+import com.audition.model.Comment;
+import java.util.List;
+
+/*
+64 bit FNV-1a fingerprint over the fields that are serialized, computed once when an entry is loaded. Equal content
+gives the same version on every instance, so clients can revalidate against any of them.
+ */
+final class ContentVersion {
+
+    private static final long OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long PRIME = 0x100000001b3L;
+
+    private long hash = OFFSET_BASIS;
+
+    private ContentVersion() {
+    }
+
+    static long ofPosts(final List<AuditionPost> posts) {
+        final ContentVersion version = new ContentVersion();
+        version.addPosts(posts);
+        return version.hash;
+    }
+
+    static long ofPost(final AuditionPost post) {
+        final ContentVersion version = new ContentVersion();
+        version.addPost(post);
+        return version.hash;
+    }
+
+    static long ofComments(final List<Comment> comments) {
+        final ContentVersion version = new ContentVersion();
+        version.addComments(comments);
+        return version.hash;
+    }
+
+    private void addPosts(final List<AuditionPost> posts) {
+        if (posts == null) {
+            add(-1);
+            return;
+        }
+        add(posts.size());
+        for (final AuditionPost post : posts) {
+            addPost(post);
+        }
+    }
+
+    private void addPost(final AuditionPost post) {
+        if (post == null) {
+            add(-1);
+            return;
+        }
+        add(post.getUserId());
+        add(post.getId());
+        add(post.getTitle());
+        add(post.getBody());
+        addComments(post.getComments());
+    }
+
+    private void addComments(final List<Comment> comments) {
+        if (comments == null) {
+            add(-1);
+            return;
+        }
+        add(comments.size());
+        for (final Comment comment : comments) {
+            add(comment.getPostId());
+            add(comment.getId());
+            add(comment.getName());
+            add(comment.getEmail());
+            add(comment.getBody());
+        }
+    }
+
+    // Lengths are mixed in first so that adjacent strings cannot shift characters between each other.
+    private void add(final String value) {
+        if (value == null) {
+            add(-1);
+            return;
+        }
+        add(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            add(value.charAt(i));
+        }
+    }
+
+    private void add(final int value) {
+        hash = (hash ^ value) * PRIME;
+    }
+}
@@ -0,0 +1,33 @@
+package com.audition.service;
+
+import com.audition.integration.ReactiveAuditionIntegrationClient;
+import com.audition.model.AuditionPost;
+import com.audition.model.Comment;
+import jakarta.validation.constraints.NotEmpty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+public class ReactiveAuditionService {
+
+    @Autowired
+    private ReactiveAuditionIntegrationClient reactiveAuditionIntegrationClient;
+
+    public Flux<AuditionPost> getPosts() {
+        return reactiveAuditionIntegrationClient.getPosts();
+    }
+
+    public Mono<AuditionPost> getPostById(final String postId) {
+        return reactiveAuditionIntegrationClient.getPostById(postId);
+    }
+
+    public Mono<AuditionPost> getPostWithComments(final String postId) {
+        return reactiveAuditionIntegrationClient.getPostWithComments(postId);
+    }
+
+    public Flux<Comment> getPostComments(@NotEmpty final String postId) {
+        return reactiveAuditionIntegrationClient.getPostComments(postId);
+    }
+}
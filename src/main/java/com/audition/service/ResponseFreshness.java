@@ -0,0 +1,60 @@
+package com.audition.service;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import lombok.Getter;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/*
+How fresh the cached upstream data served for the current request is and which version of it was served. Recorded by
+the service for every cached value it returns and turned into Age, Warning and ETag headers by FreshnessHeaderAdvice.
+When a request reads several entries, the oldest age and least fresh state are kept and the versions are combined.
+Outside of a web request nothing is recorded.
+ */
+@Getter
+public final class ResponseFreshness {
+
+    public enum State {
+        FRESH,
+        // Served after its freshness ran out while a reload runs in the background.
+        STALE,
+        // Served because reloading it from the upstream failed.
+        REVALIDATION_FAILED
+    }
+
+    private static final String ATTRIBUTE = ResponseFreshness.class.getName();
+
+    private final long ageSeconds;
+    private final State state;
+    private final long version;
+
+    private ResponseFreshness(final long ageSeconds, final State state, final long version) {
+        this.ageSeconds = ageSeconds;
+        this.state = state;
+        this.version = version;
+    }
+
+    public static Optional<ResponseFreshness> current() {
+        final RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(
+            (ResponseFreshness) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST));
+    }
+
+    static void record(final long ageNanos, final State state, final long version) {
+        final RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return;
+        }
+        final long ageSeconds = TimeUnit.NANOSECONDS.toSeconds(Math.max(0, ageNanos));
+        final ResponseFreshness current =
+            (ResponseFreshness) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        final ResponseFreshness freshness = current == null ? new ResponseFreshness(ageSeconds, state, version)
+            : new ResponseFreshness(Math.max(ageSeconds, current.ageSeconds),
+                state.compareTo(current.state) > 0 ? state : current.state, 31 * current.version + version);
+        attributes.setAttribute(ATTRIBUTE, freshness, RequestAttributes.SCOPE_REQUEST);
+    }
+}
@@ -0,0 +1,64 @@
+package com.audition.service;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.util.Optional;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/*
+The encoded JSON of a cached response body and its gzip variant. It is created together with the cache entry and
+dropped with it when the entry is reloaded, so it never outlives the data it was written from. The web layer fills it
+on the first write and sends the bytes as they are afterwards, see CachedJsonHttpMessageConverter. The service records
+the body it returns for the current request and only that exact object can use the bytes, paged or filtered results
+are written as usual.
+ */
+public final class SerializedBody {
+
+    private static final String ATTRIBUTE = SerializedBody.class.getName();
+
+    private final Object body;
+    private volatile byte[] json;
+    private volatile byte[] gzip;
+
+    SerializedBody(final Object body) {
+        this.body = body;
+    }
+
+    public static Optional<SerializedBody> forResponse(final Object responseBody) {
+        final RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null || responseBody == null) {
+            return Optional.empty();
+        }
+        final SerializedBody recorded =
+            (SerializedBody) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        return recorded != null && recorded.body == responseBody ? Optional.of(recorded) : Optional.empty();
+    }
+
+    static void record(final SerializedBody serializedBody) {
+        final RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.setAttribute(ATTRIBUTE, serializedBody, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    // Concurrent first writes may both encode, either result is kept.
+    @SuppressFBWarnings("EI_EXPOSE_REP")
+    public byte[] getJson() {
+        return json;
+    }
+
+    @SuppressFBWarnings("EI_EXPOSE_REP2")
+    public void setJson(final byte[] json) {
+        this.json = json;
+    }
+
+    @SuppressFBWarnings("EI_EXPOSE_REP")
+    public byte[] getGzip() {
+        return gzip;
+    }
+
+    @SuppressFBWarnings("EI_EXPOSE_REP2")
+    public void setGzip(final byte[] gzip) {
+        this.gzip = gzip;
+    }
+}
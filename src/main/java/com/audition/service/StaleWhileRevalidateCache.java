@@ -0,0 +1,120 @@
+package com.audition.service;
+
+import com.audition.common.exception.SystemException;
+import com.audition.service.ResponseFreshness.State;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.Ticker;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+/*
+Keeps the last known good copy of each upstream resource. Caffeine reloads an entry in the background once it is older
+than refreshAfterWrite and keeps the old copy when that reload fails. Entries older than refreshAfterWrite plus
+staleWhileRevalidate are reloaded before they are returned; if the upstream is failing, the old copy is served until it
+expires after expireAfterWrite.
+ */
+final class StaleWhileRevalidateCache<V> {
+
+    // version fingerprints the content of value, it is what clients see as the ETag. body holds the encoded response.
+    record Entry<V>(V value, long loadedAt, long version, SerializedBody body) {
+
+    }
+
+    private final LoadingCache<String, Entry<V>> cache;
+    private final Function<String, V> loader;
+    private final ToLongFunction<V> versioner;
+    private final Function<? super V, ?> responseBody;
+    private final Ticker ticker;
+    private final long freshNanos;
+    private final long revalidateNanos;
+
+    // cacheBuilder builds the Caffeine cache around the given loader, which stamps every value with its load time.
+    // responseBody maps a cached value to the object the api returns for it, e.g. the posts list of a PostIndex.
+    StaleWhileRevalidateCache(final Function<String, V> loader, final ToLongFunction<V> versioner,
+        final Function<? super V, ?> responseBody, final Ticker ticker, final Duration refreshAfterWrite,
+        final Duration staleWhileRevalidate,
+        final Function<CacheLoader<String, Entry<V>>, LoadingCache<String, Entry<V>>> cacheBuilder) {
+        this.loader = loader;
+        this.versioner = versioner;
+        this.responseBody = responseBody;
+        this.ticker = ticker;
+        this.freshNanos = refreshAfterWrite == null ? Long.MAX_VALUE : refreshAfterWrite.toNanos();
+        this.revalidateNanos = refreshAfterWrite == null ? Long.MAX_VALUE
+            : refreshAfterWrite.plus(staleWhileRevalidate == null ? Duration.ZERO : staleWhileRevalidate).toNanos();
+        this.cache = cacheBuilder.apply(this::load);
+    }
+
+    // An entry as it was served: its age and freshness state at the time of the lookup.
+    record Served<V>(Entry<V> entry, long ageNanos, State state) {
+
+        V value() {
+            return entry.value();
+        }
+
+        void recordFreshness() {
+            ResponseFreshness.record(ageNanos, state, entry.version());
+        }
+    }
+
+    V get(final String key) {
+        final Served<V> served = lookup(key);
+        served.recordFreshness();
+        SerializedBody.record(served.entry().body());
+        return served.value();
+    }
+
+    // Same as get, but nothing is recorded for the current request. Lookups may run on other threads, the request
+    // thread records what was served once they completed.
+    Served<V> lookup(final String key) {
+        Entry<V> entry = cache.get(key);
+        long age = ticker.read() - entry.loadedAt();
+        State state = age >= freshNanos ? State.STALE : State.FRESH;
+        if (age >= revalidateNanos) {
+            try {
+                entry = load(key);
+                cache.put(key, entry);
+                age = 0;
+                state = State.FRESH;
+            } catch (final RuntimeException e) {
+                if (!isUpstreamFailure(e)) {
+                    throw e;
+                }
+                state = State.REVALIDATION_FAILED;
+            }
+        }
+        return new Served<>(entry, age, state);
+    }
+
+    // Whether a copy is cached, fresh or not. Nothing is loaded and no statistics are recorded.
+    boolean isCached(final String key) {
+        return cache.policy().getIfPresentQuietly(key) != null;
+    }
+
+    // Version of the cached value while it is fresh. Nothing is loaded or refreshed and no statistics are recorded.
+    OptionalLong freshVersion(final String key) {
+        final Entry<V> entry = cache.policy().getIfPresentQuietly(key);
+        if (entry == null || ticker.read() - entry.loadedAt() >= freshNanos) {
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(entry.version());
+    }
+
+    private Entry<V> load(final String key) {
+        final V value = loader.apply(key);
+        return new Entry<>(value, ticker.read(), versioner.applyAsLong(value),
+            new SerializedBody(responseBody.apply(value)));
+    }
+
+    // Failures of the upstream itself, as opposed to answers such as a missing post.
+    private static boolean isUpstreamFailure(final RuntimeException e) {
+        if (e instanceof SystemException systemException) {
+            return systemException.getStatusCode() == null || systemException.getStatusCode() >= 500;
+        }
+        return e instanceof HttpServerErrorException || e instanceof ResourceAccessException;
+    }
+}
@@ -0,0 +1,115 @@
+package com.audition.service.query;
+
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/*
+Open addressing hash map with primitive int keys. Avoids boxing every key and the node per entry a HashMap would
+allocate, lookups are a multiply, a mask and usually a single array probe. Not thread-safe while being filled; the
+indexes that use it are built once and only read afterwards.
+ */
+final class IntKeyMap<V> {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private int[] keys;
+    private Object[] values;
+    private boolean[] used;
+    private int size;
+
+    IntKeyMap(final int expectedSize) {
+        final int capacity = Math.max(MIN_CAPACITY, Integer.highestOneBit(Math.max(1, expectedSize) * 2 - 1) << 1);
+        allocate(capacity);
+    }
+
+    int size() {
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(final int key) {
+        final int mask = keys.length - 1;
+        for (int slot = slot(key, mask); used[slot]; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return (V) values[slot];
+            }
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    V computeIfAbsent(final int key, final IntFunction<V> factory) {
+        final int mask = keys.length - 1;
+        int slot = slot(key, mask);
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                return (V) values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        final V value = factory.apply(key);
+        insert(slot, key, value);
+        return value;
+    }
+
+    void put(final int key, final V value) {
+        final int mask = keys.length - 1;
+        int slot = slot(key, mask);
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        insert(slot, key, value);
+    }
+
+    @SuppressWarnings("unchecked")
+    <R> IntKeyMap<R> mapValues(final Function<V, R> mapper) {
+        final IntKeyMap<R> mapped = new IntKeyMap<>(size);
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (used[slot]) {
+                mapped.put(keys[slot], mapper.apply((V) values[slot]));
+            }
+        }
+        return mapped;
+    }
+
+    private void insert(final int slot, final int key, final V value) {
+        keys[slot] = key;
+        values[slot] = value;
+        used[slot] = true;
+        size++;
+        // Keeps the load factor at or below one half so probe sequences stay short.
+        if (size * 2 > keys.length) {
+            rehash();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void rehash() {
+        final int[] oldKeys = keys;
+        final Object[] oldValues = values;
+        final boolean[] oldUsed = used;
+        allocate(oldKeys.length * 2);
+        size = 0;
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldUsed[slot]) {
+                put(oldKeys[slot], (V) oldValues[slot]);
+            }
+        }
+    }
+
+    private void allocate(final int capacity) {
+        keys = new int[capacity];
+        values = new Object[capacity];
+        used = new boolean[capacity];
+    }
+
+    private static int slot(final int key, final int mask) {
+        // Fibonacci hashing spreads sequential ids over the whole table.
+        final int hash = key * 0x9E3779B9;
+        return (hash ^ hash >>> 16) & mask;
+    }
+}
@@ -0,0 +1,19 @@
+package com.audition.service.query;
+
+import com.audition.model.AuditionPost;
+import java.util.function.ToIntFunction;
+
+public enum NumericField {
+    ID(AuditionPost::getId),
+    USER_ID(AuditionPost::getUserId);
+
+    private final ToIntFunction<AuditionPost> accessor;
+
+    NumericField(final ToIntFunction<AuditionPost> accessor) {
+        this.accessor = accessor;
+    }
+
+    int valueOf(final AuditionPost post) {
+        return accessor.applyAsInt(post);
+    }
+}
@@ -0,0 +1,24 @@
+package com.audition.service.query;
+
+import com.audition.model.AuditionPost;
+import java.util.function.Predicate;
+
+/*
+A single check of a PostQuery. The cost orders the checks of a query so the cheapest and most selective ones run
+first and the more expensive text matches only see posts that passed them. Conditions backed by a PostIndex lookup
+narrow the posts to check before any of them is tested.
+ */
+public interface PostCondition extends Predicate<AuditionPost> {
+
+    int COST_EXACT = 10;
+    int COST_RANGE = 20;
+    int COST_PREFIX = 30;
+    int COST_SUBSTRING = 40;
+
+    int cost();
+
+    // Positions in the index that can satisfy this condition, or null when the index cannot narrow it down.
+    default int[] candidates(final PostIndex index) {
+        return null;
+    }
+}
@@ -0,0 +1,113 @@
+package com.audition.service.query;
+
+import com.audition.model.AuditionPost;
+
+/*
+The operators a PostQuery can be built from.
+ */
+public final class PostConditions {
+
+    private PostConditions() {
+    }
+
+    public static PostCondition equalTo(final NumericField field, final int value) {
+        return new Numeric(field, value, value, PostCondition.COST_EXACT);
+    }
+
+    public static PostCondition between(final NumericField field, final int min, final int max) {
+        return new Numeric(field, min, max, PostCondition.COST_RANGE);
+    }
+
+    public static PostCondition startsWith(final TextField field, final String prefix, final boolean ignoreCase) {
+        final SubstringMatcher matcher = new SubstringMatcher(prefix, ignoreCase);
+        return new Text(field, prefix, PostCondition.COST_PREFIX) {
+            @Override
+            boolean matches(final String value) {
+                return matcher.isPrefixOf(value);
+            }
+        };
+    }
+
+    public static PostCondition contains(final TextField field, final String needle, final boolean ignoreCase) {
+        final SubstringMatcher matcher = new SubstringMatcher(needle, ignoreCase);
+        return new Text(field, needle, PostCondition.COST_SUBSTRING) {
+            @Override
+            boolean matches(final String value) {
+                return matcher.isContainedIn(value);
+            }
+        };
+    }
+
+    static final class Numeric implements PostCondition {
+
+        private final NumericField field;
+        private final int min;
+        private final int max;
+        private final int cost;
+
+        Numeric(final NumericField field, final int min, final int max, final int cost) {
+            this.field = field;
+            this.min = min;
+            this.max = max;
+            this.cost = cost;
+        }
+
+        @Override
+        public boolean test(final AuditionPost post) {
+            final int value = field.valueOf(post);
+            return value >= min && value <= max;
+        }
+
+        @Override
+        public int cost() {
+            return cost;
+        }
+
+        @Override
+        public int[] candidates(final PostIndex index) {
+            if (min != max) {
+                return null;
+            }
+            return field == NumericField.ID ? index.positionsOfId(min) : index.positionsOfUserId(min);
+        }
+
+        boolean isExact(final NumericField numericField) {
+            return field == numericField && min == max;
+        }
+
+        int getMin() {
+            return min;
+        }
+    }
+
+    abstract static class Text implements PostCondition {
+
+        private final TextField field;
+        private final String text;
+        private final int cost;
+
+        Text(final TextField field, final String text, final int cost) {
+            this.field = field;
+            this.text = text;
+            this.cost = cost;
+        }
+
+        abstract boolean matches(String value);
+
+        @Override
+        public boolean test(final AuditionPost post) {
+            return matches(field.valueOf(post));
+        }
+
+        @Override
+        public int cost() {
+            return cost;
+        }
+
+        @Override
+        public int[] candidates(final PostIndex index) {
+            // The trigram index is case-insensitive, so it also narrows down case-sensitive matches.
+            return index.positionsContaining(field, text);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.audition.service.query;
+
+import com.audition.model.AuditionPost;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+Immutable snapshot of the upstream posts with secondary indexes: id and userId to positions in the list, and an
+inverted index from case-folded character trigrams of title and body to the positions containing them. Postings are
+sorted int arrays, so a query is answered by intersecting them and checking the few remaining candidates.
+ */
+public final class PostIndex {
+
+    private static final int GRAM_LENGTH = 3;
+    private static final int[] NO_POSITIONS = new int[0];
+
+    private final List<AuditionPost> posts;
+    private final IntKeyMap<int[]> idPositions;
+    private final IntKeyMap<int[]> userIdPositions;
+    private final Map<TextField, IntKeyMap<int[]>> gramPositions = new EnumMap<>(TextField.class);
+
+    private PostIndex(final List<AuditionPost> posts) {
+        this.posts = posts;
+        final IntKeyMap<IntList> ids = new IntKeyMap<>(posts.size());
+        final IntKeyMap<IntList> userIds = new IntKeyMap<>(posts.size() / 8);
+        final Map<TextField, IntKeyMap<IntList>> grams = new EnumMap<>(TextField.class);
+        for (final TextField field : TextField.values()) {
+            grams.put(field, new IntKeyMap<>(posts.size() * 4));
+        }
+        for (int position = 0; position < posts.size(); position++) {
+            final AuditionPost post = posts.get(position);
+            ids.computeIfAbsent(post.getId(), key -> new IntList()).add(position);
+            userIds.computeIfAbsent(post.getUserId(), key -> new IntList()).add(position);
+            for (final TextField field : TextField.values()) {
+                addGrams(grams.get(field), field.valueOf(post), position);
+            }
+        }
+        this.idPositions = ids.mapValues(IntList::toArray);
+        this.userIdPositions = userIds.mapValues(IntList::toArray);
+        grams.forEach((field, postings) -> gramPositions.put(field, postings.mapValues(IntList::toArray)));
+    }
+
+    public static PostIndex of(final List<AuditionPost> posts) {
+        return new PostIndex(posts == null ? List.of() : posts);
+    }
+
+    public List<AuditionPost> getPosts() {
+        return posts;
+    }
+
+    public int size() {
+        return posts.size();
+    }
+
+    public AuditionPost getById(final int id) {
+        final int[] positions = positionsOfId(id);
+        return positions.length == 0 ? null : posts.get(positions[0]);
+    }
+
+    int[] positionsOfId(final int id) {
+        final int[] positions = idPositions.get(id);
+        return positions == null ? NO_POSITIONS : positions;
+    }
+
+    int[] positionsOfUserId(final int userId) {
+        final int[] positions = userIdPositions.get(userId);
+        return positions == null ? NO_POSITIONS : positions;
+    }
+
+    /*
+    Positions whose field may contain the text, a superset of the real matches that the caller has to verify. Returns
+    null when the text is too short to be looked up in the trigram index.
+     */
+    int[] positionsContaining(final TextField field, final String text) {
+        if (text.length() < GRAM_LENGTH) {
+            return null;
+        }
+        final IntKeyMap<int[]> postings = gramPositions.get(field);
+        int[] candidates = null;
+        for (int start = 0; start + GRAM_LENGTH <= text.length(); start++) {
+            final int[] positions = postings.get(gramKey(text, start));
+            if (positions == null) {
+                return NO_POSITIONS;
+            }
+            candidates = candidates == null ? positions : intersect(candidates, positions);
+            if (candidates.length == 0) {
+                return NO_POSITIONS;
+            }
+        }
+        return candidates;
+    }
+
+    static int[] intersect(final int[] left, final int[] right) {
+        final int[] result = new int[Math.min(left.length, right.length)];
+        int size = 0;
+        int i = 0;
+        int j = 0;
+        while (i < left.length && j < right.length) {
+            if (left[i] < right[j]) {
+                i++;
+            } else if (left[i] > right[j]) {
+                j++;
+            } else {
+                result[size++] = left[i];
+                i++;
+                j++;
+            }
+        }
+        return size == result.length ? result : Arrays.copyOf(result, size);
+    }
+
+    private static void addGrams(final IntKeyMap<IntList> postings, final String text, final int position) {
+        if (text == null) {
+            return;
+        }
+        for (int start = 0; start + GRAM_LENGTH <= text.length(); start++) {
+            postings.computeIfAbsent(gramKey(text, start), key -> new IntList()).add(position);
+        }
+    }
+
+    private static int gramKey(final String text, final int start) {
+        final char first = SubstringMatcher.fold(text.charAt(start));
+        final char second = SubstringMatcher.fold(text.charAt(start + 1));
+        final char third = SubstringMatcher.fold(text.charAt(start + 2));
+        if ((first | second | third) < 1024) {
+            // Exact key for the common case of characters below U+0400, ten bits each.
+            return first << 20 | second << 10 | third;
+        }
+        // Other trigrams are hashed into the negative key range. A collision only widens the candidate set.
+        return Integer.MIN_VALUE | (first * 961 + second * 31 + third);
+    }
+
+    private static final class IntList {
+
+        private int[] values = new int[4];
+        private int size;
+
+        void add(final int value) {
+            // Positions arrive in ascending order, a trigram repeated within one post is recorded once.
+            if (size > 0 && values[size - 1] == value) {
+                return;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.audition.service.query;
+
+import com.audition.model.AuditionPost;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.OptionalInt;
+
+/*
+The /posts filters compiled once per request into a single chain of checks, ordered by cost. Posts are filtered in
+one pass into one result list, and a query on an exact id stops at the first match since ids are unique.
+ */
+public final class PostQuery {
+
+    private final PostCondition[] conditions;
+    private final OptionalInt exactId;
+
+    private PostQuery(final List<PostCondition> conditions) {
+        this.conditions = conditions.stream()
+            .sorted(Comparator.comparingInt(PostCondition::cost))
+            .toArray(PostCondition[]::new);
+        this.exactId = conditions.stream()
+            .filter(condition -> condition instanceof PostConditions.Numeric numeric
+                && numeric.isExact(NumericField.ID))
+            .mapToInt(condition -> ((PostConditions.Numeric) condition).getMin())
+            .findFirst();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    // The filters accepted by GET /posts, a null parameter does not restrict the result.
+    public static PostQuery of(final Integer userId, final Integer id, final String titleLike,
+        final String bodyLike) {
+        final Builder builder = builder();
+        if (Objects.nonNull(userId)) {
+            builder.where(PostConditions.equalTo(NumericField.USER_ID, userId));
+        }
+        if (Objects.nonNull(id)) {
+            builder.where(PostConditions.equalTo(NumericField.ID, id));
+        }
+        if (Objects.nonNull(titleLike)) {
+            builder.where(PostConditions.contains(TextField.TITLE, titleLike, false));
+        }
+        if (Objects.nonNull(bodyLike)) {
+            builder.where(PostConditions.contains(TextField.BODY, bodyLike, false));
+        }
+        return builder.build();
+    }
+
+    public boolean matches(final AuditionPost post) {
+        for (final PostCondition condition : conditions) {
+            if (!condition.test(post)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean isUnrestricted() {
+        return conditions.length == 0;
+    }
+
+    public OptionalInt getExactId() {
+        return exactId;
+    }
+
+    public List<AuditionPost> filter(final List<AuditionPost> posts) {
+        if (isUnrestricted()) {
+            return posts;
+        }
+        final List<AuditionPost> matches = new ArrayList<>();
+        for (final AuditionPost post : posts) {
+            if (matches(post)) {
+                matches.add(post);
+                if (exactId.isPresent()) {
+                    break;
+                }
+            }
+        }
+        return matches;
+    }
+
+    /*
+    Same result as filter(index.getPosts()), but the indexed conditions are answered by intersecting their postings
+    and only the remaining candidates are checked against the full condition chain.
+     */
+    public List<AuditionPost> filter(final PostIndex index) {
+        if (isUnrestricted()) {
+            return index.getPosts();
+        }
+        int[] candidates = null;
+        for (final PostCondition condition : conditions) {
+            final int[] positions = condition.candidates(index);
+            if (positions != null) {
+                candidates = candidates == null ? positions : PostIndex.intersect(candidates, positions);
+                if (candidates.length == 0) {
+                    return new ArrayList<>();
+                }
+            }
+        }
+        if (candidates == null) {
+            return filter(index.getPosts());
+        }
+        final List<AuditionPost> matches = new ArrayList<>(candidates.length);
+        for (final int position : candidates) {
+            final AuditionPost post = index.getPosts().get(position);
+            if (matches(post)) {
+                matches.add(post);
+                if (exactId.isPresent()) {
+                    break;
+                }
+            }
+        }
+        return matches;
+    }
+
+    public static final class Builder {
+
+        private final List<PostCondition> conditions = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        public Builder where(final PostCondition condition) {
+            conditions.add(condition);
+            return this;
+        }
+
+        public PostQuery build() {
+            return new PostQuery(conditions);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.audition.service.query;
+
+import java.util.Arrays;
+
+/*
+Precompiled text matcher for the *Like filters. Case-sensitive searches for short needles use String.indexOf, which
+the JIT turns into a vectorised intrinsic. Longer needles and case-insensitive searches use Boyer-Moore-Horspool with a
+bad character table built once per query, so no lower-cased copy of the searched text is ever allocated. Both
+searches and the trigrams of PostIndex compare case-insensitively through fold, the rule of String.equalsIgnoreCase.
+ */
+final class SubstringMatcher {
+
+    private static final int HORSPOOL_MIN_LENGTH = 8;
+    private static final int TABLE_SIZE = 256;
+
+    private final String needle;
+    private final char[] pattern;
+    private final boolean ignoreCase;
+    private final int[] shift;
+
+    SubstringMatcher(final String needle, final boolean ignoreCase) {
+        this.needle = needle;
+        this.ignoreCase = ignoreCase;
+        this.pattern = new char[needle.length()];
+        for (int i = 0; i < pattern.length; i++) {
+            pattern[i] = ignoreCase ? fold(needle.charAt(i)) : needle.charAt(i);
+        }
+        if (ignoreCase || pattern.length >= HORSPOOL_MIN_LENGTH) {
+            // Characters share a slot by their low byte, a collision only makes the shift shorter, never wrong.
+            shift = new int[TABLE_SIZE];
+            Arrays.fill(shift, Math.max(pattern.length, 1));
+            for (int i = 0; i < pattern.length - 1; i++) {
+                shift[pattern[i] & (TABLE_SIZE - 1)] = pattern.length - 1 - i;
+            }
+        } else {
+            shift = null;
+        }
+    }
+
+    boolean isContainedIn(final String text) {
+        if (text == null) {
+            return false;
+        }
+        if (shift == null) {
+            return text.contains(needle);
+        }
+        final int last = pattern.length - 1;
+        int offset = 0;
+        while (offset + last < text.length()) {
+            int index = last;
+            while (index >= 0 && charAt(text, offset + index) == pattern[index]) {
+                index--;
+            }
+            if (index < 0) {
+                return true;
+            }
+            offset += shift[charAt(text, offset + last) & (TABLE_SIZE - 1)];
+        }
+        return pattern.length == 0;
+    }
+
+    boolean isPrefixOf(final String text) {
+        if (text == null || text.length() < pattern.length) {
+            return false;
+        }
+        for (int i = 0; i < pattern.length; i++) {
+            if (charAt(text, i) != pattern[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /*
+    Upper- then lower-cases, so characters with the same upper case (like 's', 'S' and the long s) fold to one and the
+    same char. Lower-casing alone would keep them apart.
+     */
+    static char fold(final char value) {
+        return Character.toLowerCase(Character.toUpperCase(value));
+    }
+
+    private char charAt(final String text, final int index) {
+        return ignoreCase ? fold(text.charAt(index)) : text.charAt(index);
+    }
+}
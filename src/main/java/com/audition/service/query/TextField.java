@@ -0,0 +1,19 @@
+package com.audition.service.query;
+
+import com.audition.model.AuditionPost;
+import java.util.function.Function;
+
+public enum TextField {
+    TITLE(AuditionPost::getTitle),
+    BODY(AuditionPost::getBody);
+
+    private final Function<AuditionPost, String> accessor;
+
+    TextField(final Function<AuditionPost, String> accessor) {
+        this.accessor = accessor;
+    }
+
+    String valueOf(final AuditionPost post) {
+        return accessor.apply(post);
+    }
+}
@@ -1,19 +1,29 @@
 package com.audition.web;
 
 import com.audition.common.exception.SystemException;
+import com.audition.configuration.BatchProperties;
 import com.audition.model.AuditionPost;
 import com.audition.model.Comment;
+import com.audition.model.PostBatch;
+import com.audition.model.PostResult;
 import com.audition.service.AuditionService;
+import com.audition.service.query.PostQuery;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.constraints.NotEmpty;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
-import java.util.stream.Collectors;
+import java.util.Map;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.repository.query.Param;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -23,69 +33,95 @@ public class AuditionController {
     @Autowired
     AuditionService auditionService;
 
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    BatchProperties batchProperties;
+
     // TODO-Resolved Add a query param that allows data filtering. The intent of the filter is at developers discretion.
     @RequestMapping(value = "/posts", method = RequestMethod.GET, produces = MediaType.APPLICATION_JSON_VALUE)
     public @ResponseBody List<AuditionPost> getPosts(@Param("userId") Integer userId, @Param("id") Integer id,
-        @Param("titleLike") String titleLike, @Param("bodyLike") String bodyLike) {
+        @Param("titleLike") String titleLike, @Param("bodyLike") String bodyLike, @Param("page") Integer page,
+        @Param("size") Integer size, @Param("limit") Integer limit) {
 
         // TODO-Resolved Add logic that filters response data based on the query param
-        List<AuditionPost> responsePosts = auditionService.getPosts();
-        if (Objects.nonNull(userId)) {
-            responsePosts = responsePosts.stream().filter(post -> post.getUserId() == userId)
-                .collect(Collectors.toList());
-        }
-        if (Objects.nonNull(id)) {
-            responsePosts = responsePosts.stream().filter(post -> post.getId() == id)
-                .collect(Collectors.toList());
-        }
-        if (Objects.nonNull(titleLike)) {
-            responsePosts = responsePosts.stream().filter(post -> post.getTitle().contains(titleLike))
-                .collect(Collectors.toList());
-        }
-        if (Objects.nonNull(bodyLike)) {
-            responsePosts = responsePosts.stream().filter(post -> post.getBody().contains(bodyLike))
-                .collect(Collectors.toList());
+        // The fields param is applied while writing the response, see FieldProjectionAdvice.
+        return Pages.slice(auditionService.getPosts(PostQuery.of(userId, id, titleLike, bodyLike)), page, size, limit);
+    }
+
+    /*
+    Same filters as /posts, but the upstream list is parsed as it arrives and every matching post is written to the
+    response right away. Memory use depends on the number of matches, not on the size of the upstream data set.
+     */
+    @RequestMapping(value = "/posts/stream", method = RequestMethod.GET, produces = MediaType.APPLICATION_JSON_VALUE)
+    public void streamPosts(@Param("userId") Integer userId, @Param("id") Integer id,
+        @Param("titleLike") String titleLike, @Param("bodyLike") String bodyLike, final HttpServletResponse response)
+        throws IOException {
+        final PostQuery query = PostQuery.of(userId, id, titleLike, bodyLike);
+        // The array is started by the first matching post, upstream errors before that get a regular error response.
+        try (StreamedJsonArray<AuditionPost> array = new StreamedJsonArray<>(objectMapper, AuditionPost.class,
+            response)) {
+            auditionService.streamPosts(query::matches, array::write);
+            array.finish();
         }
-        return responsePosts;
+    }
+
+    /*
+    Several posts in one request, e.g. /posts/batch?ids=1,2,3&include=comments. Results are returned in the order of
+    the ids, each with its own status: an invalid or unknown id does not fail the others.
+     */
+    @RequestMapping(value = "/posts/batch", method = RequestMethod.GET, produces = MediaType.APPLICATION_JSON_VALUE)
+    public @ResponseBody List<PostResult> getPostsBatch(@RequestParam("ids") final List<String> ids,
+        @RequestParam(value = "include", required = false) final String include) {
+        return lookupPosts(ids, PostBatch.INCLUDE_COMMENTS.equals(include));
+    }
+
+    // Same as the GET variant for id lists that do not fit into a URL.
+    @RequestMapping(value = "/posts/batch", method = RequestMethod.POST, consumes = MediaType.APPLICATION_JSON_VALUE,
+        produces = MediaType.APPLICATION_JSON_VALUE)
+    public @ResponseBody List<PostResult> postPostsBatch(@RequestBody final PostBatch batch) {
+        return lookupPosts(batch.getIds() == null ? List.of() : batch.getIds(), batch.isIncludeComments());
     }
 
     @RequestMapping(value = "/posts/{postId}", method = RequestMethod.GET, produces = MediaType.APPLICATION_JSON_VALUE)
     public @ResponseBody AuditionPost getPost(@NotEmpty @PathVariable("postId") final String postId) {
         // TODO-Resolved Add input validation
-        try {
-            Integer.valueOf(postId);
-            return auditionService.getPostById(postId);
-        } catch (NumberFormatException nfe) {
-            throw new SystemException(String.format("Invalid postId: %s, Invalid number %s", postId, nfe.getMessage()),
-                "Bad Request",
-                400);
-        }
+        PostIds.validate(postId);
+        return auditionService.getPostById(postId);
     }
 
     // TODO-Resolved Add additional methods to return comments for each post. Hint: Check https://jsonplaceholder.typicode.com/
     @RequestMapping(value = "/posts/{postId}/comments", method = RequestMethod.GET, produces = MediaType.APPLICATION_JSON_VALUE)
     public @ResponseBody AuditionPost getPostWithComments(@NotEmpty @PathVariable("postId") final String postId) {
-        try {
-            Integer.valueOf(postId);
-            return auditionService.getPostWithComments(postId);
-        } catch (NumberFormatException nfe) {
-            throw new SystemException(String.format("Invalid postId: %s, Invalid number %s", postId, nfe.getMessage()),
-                "Bad Request",
-                400);
-        }
+        PostIds.validate(postId);
+        return auditionService.getPostWithComments(postId);
     }
 
     // TODO-Resolved Add additional methods to return comments for each post. Hint: Check https://jsonplaceholder.typicode.com/
     @RequestMapping(value = "/comments/{postId}", method = RequestMethod.GET, produces = MediaType.APPLICATION_JSON_VALUE)
-    public @ResponseBody List<Comment> getPostComments(@NotEmpty @PathVariable("postId") final String postId) {
-        try {
-            Integer.valueOf(postId);
-            return auditionService.getPostComments(postId);
-        } catch (NumberFormatException nfe) {
-            throw new SystemException(String.format("Invalid postId: %s, Invalid number %s", postId, nfe.getMessage()),
-                "Bad Request",
-                400);
+    public @ResponseBody List<Comment> getPostComments(@NotEmpty @PathVariable("postId") final String postId,
+        @Param("page") Integer page, @Param("size") Integer size, @Param("limit") Integer limit) {
+        PostIds.validate(postId);
+        return Pages.slice(auditionService.getPostComments(postId), page, size, limit);
+    }
+
+    // Invalid ids are answered here as /posts/{postId} would answer them, only valid ones are looked up.
+    private List<PostResult> lookupPosts(final List<String> ids, final boolean includeComments) {
+        if (ids.isEmpty() || ids.size() > batchProperties.getMaxIds()) {
+            throw SystemException.clientError(String.format("Invalid ids: %d ids, must be between 1 and %d",
+                ids.size(), batchProperties.getMaxIds()), PostIds.BAD_REQUEST, HttpStatus.BAD_REQUEST.value());
+        }
+        final List<String> validIds = ids.stream().filter(PostIds::isInteger).toList();
+        // Entries for invalid ids are not part of the cached content, such responses are not tagged.
+        final Map<String, PostResult> found = validIds.isEmpty() ? Map.of()
+            : auditionService.getPostsByIds(validIds, includeComments, validIds.size() == ids.size());
+        final List<PostResult> results = new ArrayList<>(ids.size());
+        for (final String id : ids) {
+            results.add(PostIds.isInteger(id) ? found.get(id)
+                : PostResult.failed(id, HttpStatus.BAD_REQUEST.value(), PostIds.BAD_REQUEST, PostIds.invalid(id)));
         }
+        return results;
     }
 
 }
@@ -0,0 +1,173 @@
+package com.audition.web;
+
+import com.audition.common.timing.RequestTiming;
+import com.audition.common.timing.RequestTiming.Phase;
+import com.audition.service.SerializedBody;
+import com.audition.web.advice.ServerTimingAdvice;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+import org.springframework.boot.web.server.Compression;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.util.StringUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/*
+Writes cached response bodies from their encoded bytes. The first response for a cache entry is encoded once and kept
+with the entry, later responses copy the bytes to the output stream without running Jackson. Bodies with a field
+projection or a view, and everything that is not a cached body, are written by the regular Jackson converter.
+
+With server.compression enabled, cached bodies of at least min-response-size are also gzipped once per entry and sent
+as they are to clients accepting gzip. Other responses are compressed by Tomcat per response. Brotli and zstd would
+need native libraries, the JDK only ships deflate.
+ */
+public class CachedJsonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    static final String COMPRESSION_RATIO_METER = "http.server.responses.compression.ratio";
+    static final String COMPRESSION_TIME_METER = "http.server.responses.compression.time";
+    private static final String GZIP = "gzip";
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private final boolean compress;
+    private final long minCompressionSize;
+    private final DistributionSummary compressionRatio;
+    private final Timer compressionTime;
+
+    public CachedJsonHttpMessageConverter(final ObjectMapper objectMapper, final Compression compression,
+        final MeterRegistry meterRegistry) {
+        super(objectMapper);
+        this.compress = compression.getEnabled();
+        this.minCompressionSize = compression.getMinResponseSize().toBytes();
+        this.compressionRatio = DistributionSummary.builder(COMPRESSION_RATIO_METER)
+            .description("Compressed size of precompressed response bodies relative to their JSON size")
+            .tag("encoding", GZIP)
+            .register(meterRegistry);
+        this.compressionTime = Timer.builder(COMPRESSION_TIME_METER)
+            .description("CPU time spent precompressing response bodies")
+            .tag("encoding", GZIP)
+            .register(meterRegistry);
+    }
+
+    @Override
+    protected void writeInternal(final Object object, final Type type, final HttpOutputMessage outputMessage)
+        throws IOException, HttpMessageNotWritableException {
+        final long start = System.nanoTime();
+        final HttpHeaders headers = outputMessage.getHeaders();
+        final Optional<SerializedBody> serializedBody = serializedBody(object, headers.getContentType());
+        if (serializedBody.isEmpty()) {
+            try {
+                super.writeInternal(object, type, outputMessage);
+            } finally {
+                RequestTiming.record(Phase.SERIALIZE, System.nanoTime() - start);
+            }
+            return;
+        }
+        final SerializedBody body = serializedBody.get();
+        byte[] json = body.getJson();
+        if (json == null) {
+            json = getObjectMapper().writeValueAsBytes(unwrap(object));
+            body.setJson(json);
+        }
+        byte[] content = json;
+        if (compress && json.length >= minCompressionSize) {
+            headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (acceptsGzip()) {
+                content = body.getGzip();
+                if (content == null) {
+                    content = gzip(json);
+                    body.setGzip(content);
+                }
+                headers.set(HttpHeaders.CONTENT_ENCODING, GZIP);
+                weakenEntityTag(headers);
+            }
+        }
+        headers.setContentLength(content.length);
+        RequestTiming.record(Phase.SERIALIZE, System.nanoTime() - start);
+        // The body is encoded before the headers go out, the Server-Timing header can include serialization.
+        if (headers.containsKey(ServerTimingAdvice.SERVER_TIMING)) {
+            RequestTiming.current()
+                .ifPresent(timing -> headers.set(ServerTimingAdvice.SERVER_TIMING, timing.toServerTiming()));
+        }
+        outputMessage.getBody().write(content);
+    }
+
+    static boolean acceptsGzip(final String acceptEncoding) {
+        if (!StringUtils.hasText(acceptEncoding)) {
+            return false;
+        }
+        for (final String coding : StringUtils.tokenizeToStringArray(acceptEncoding, ",")) {
+            final String[] parts = StringUtils.tokenizeToStringArray(coding, ";");
+            if (parts.length > 0 && (GZIP.equalsIgnoreCase(parts[0]) || "*".equals(parts[0]))) {
+                return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private static boolean acceptsGzip() {
+        return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+            && acceptsGzip(attributes.getRequest().getHeader(HttpHeaders.ACCEPT_ENCODING));
+    }
+
+    // Both encodings carry the content version as ETag, only a weak one may be shared between them.
+    private static void weakenEntityTag(final HttpHeaders headers) {
+        final String entityTag = headers.getETag();
+        if (entityTag != null && !entityTag.startsWith("W/")) {
+            headers.setETag("W/" + entityTag);
+        }
+    }
+
+    private byte[] gzip(final byte[] json) throws IOException {
+        final long start = cpuTime();
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(json.length / 4 + 64);
+        // Done once per cache entry, so the best ratio is worth the extra CPU.
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(json);
+        }
+        compressionTime.record(cpuTime() - start, TimeUnit.NANOSECONDS);
+        compressionRatio.record((double) bytes.size() / json.length);
+        return bytes.toByteArray();
+    }
+
+    private static long cpuTime() {
+        return THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : System.nanoTime();
+    }
+
+    private static Optional<SerializedBody> serializedBody(final Object object, final MediaType contentType) {
+        if (object instanceof MappingJacksonValue container
+            && (container.getFilters() != null || container.getSerializationView() != null)) {
+            return Optional.empty();
+        }
+        // The bytes are UTF-8, other charsets are encoded per request.
+        if (contentType != null && contentType.getCharset() != null
+            && !StandardCharsets.UTF_8.equals(contentType.getCharset())) {
+            return Optional.empty();
+        }
+        return SerializedBody.forResponse(unwrap(object));
+    }
+
+    private static Object unwrap(final Object object) {
+        return object instanceof MappingJacksonValue container ? container.getValue() : object;
+    }
+}
@@ -0,0 +1,115 @@
+package com.audition.web;
+
+import com.audition.configuration.HttpCacheProperties;
+import com.audition.model.PostBatch;
+import com.audition.service.AuditionService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.util.StringUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/*
+Answers If-None-Match before the controller runs. The ETag is the content version of the fresh cache entry behind the
+request, so a matching request gets a 304 without loading, filtering or serializing anything. When nothing fresh is
+cached the request is handled as usual and FreshnessHeaderAdvice tags the response.
+ */
+public class ConditionalGetInterceptor implements HandlerInterceptor {
+
+    static final String POSTS_PATTERN = "/posts";
+    static final String POST_PATTERN = "/posts/{postId}";
+    static final String POST_WITH_COMMENTS_PATTERN = "/posts/{postId}/comments";
+    static final String COMMENTS_PATTERN = "/comments/{postId}";
+    static final String BATCH_PATTERN = "/posts/batch";
+
+    private final AuditionService auditionService;
+    private final CacheControl cacheControl;
+
+    public ConditionalGetInterceptor(final AuditionService auditionService,
+        final HttpCacheProperties httpCacheProperties) {
+        this.auditionService = auditionService;
+        this.cacheControl = cacheControl(httpCacheProperties);
+    }
+
+    public static CacheControl cacheControl(final HttpCacheProperties httpCacheProperties) {
+        return CacheControl.maxAge(httpCacheProperties.getMaxAge()).cachePrivate();
+    }
+
+    public static String entityTag(final long version) {
+        return "\"" + Long.toHexString(version) + "\"";
+    }
+
+    @Override
+    public boolean preHandle(final HttpServletRequest request, final HttpServletResponse response,
+        final Object handler) {
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) == null
+            || !HttpMethod.GET.matches(request.getMethod()) && !HttpMethod.HEAD.matches(request.getMethod())) {
+            return true;
+        }
+        final OptionalLong version = cachedVersion(request);
+        if (version.isEmpty()) {
+            return true;
+        }
+        final ServletWebRequest webRequest = new ServletWebRequest(request, response);
+        if (webRequest.checkNotModified(entityTag(version.getAsLong()))) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+            return false;
+        }
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private OptionalLong cachedVersion(final HttpServletRequest request) {
+        final Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        final Map<String, String> variables =
+            (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        final String postId = variables == null ? null : variables.get("postId");
+        if (POSTS_PATTERN.equals(pattern)) {
+            return auditionService.getPostsVersion();
+        }
+        if (BATCH_PATTERN.equals(pattern)) {
+            return batchVersion(request);
+        }
+        if (postId == null) {
+            return OptionalLong.empty();
+        }
+        if (POST_PATTERN.equals(pattern)) {
+            return auditionService.getPostVersion(postId);
+        }
+        if (POST_WITH_COMMENTS_PATTERN.equals(pattern)) {
+            return auditionService.getPostWithCommentsVersion(postId);
+        }
+        if (COMMENTS_PATTERN.equals(pattern)) {
+            return auditionService.getPostCommentsVersion(postId);
+        }
+        return OptionalLong.empty();
+    }
+
+    // Ids as the controller binds them: a single ids param is split at commas. Batches with invalid ids have errors in
+    // them and are not answered with 304.
+    private OptionalLong batchVersion(final HttpServletRequest request) {
+        final String[] values = request.getParameterValues("ids");
+        if (values == null) {
+            return OptionalLong.empty();
+        }
+        final String[] ids = values.length == 1 ? StringUtils.commaDelimitedListToStringArray(values[0]) : values;
+        final List<String> postIds = new ArrayList<>(ids.length);
+        for (final String id : ids) {
+            final String postId = id.trim();
+            if (!PostIds.isInteger(postId)) {
+                return OptionalLong.empty();
+            }
+            postIds.add(postId);
+        }
+        return auditionService.getPostsByIdsVersion(postIds,
+            PostBatch.INCLUDE_COMMENTS.equals(request.getParameter("include")));
+    }
+}
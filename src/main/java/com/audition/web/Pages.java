@@ -0,0 +1,51 @@
+package com.audition.web;
+
+import com.audition.common.exception.SystemException;
+import java.util.List;
+
+final class Pages {
+
+    static final int MAX_SIZE = 1000;
+
+    private Pages() {
+    }
+
+    /*
+    Returns the requested window of the list. page is zero based and requires size, limit caps the number of items
+    after paging. The window is a view of the given list, items are not copied.
+     */
+    static <T> List<T> slice(final List<T> items, final Integer page, final Integer size, final Integer limit) {
+        if (page == null && size == null && limit == null) {
+            return items;
+        }
+        validate("page", page, 0, Integer.MAX_VALUE);
+        validate("size", size, 1, MAX_SIZE);
+        validate("limit", limit, 0, Integer.MAX_VALUE);
+        if (page != null && size == null) {
+            throw badRequest(String.format("Invalid page: %d, requires a size", page));
+        }
+
+        final int total = items.size();
+        int from = 0;
+        int to = total;
+        if (size != null) {
+            from = (int) Math.min((long) (page == null ? 0 : page) * size, total);
+            to = Math.min(from + size, total);
+        }
+        if (limit != null) {
+            // Summed as long, from + limit overflows an int for limits close to Integer.MAX_VALUE.
+            to = (int) Math.min((long) from + limit, to);
+        }
+        return from == 0 && to == total ? items : items.subList(from, to);
+    }
+
+    private static void validate(final String name, final Integer value, final int min, final int max) {
+        if (value != null && (value < min || value > max)) {
+            throw badRequest(String.format("Invalid %s: %d, must be between %d and %d", name, value, min, max));
+        }
+    }
+
+    private static SystemException badRequest(final String detail) {
+        return SystemException.clientError(detail, "Bad Request", 400);
+    }
+}
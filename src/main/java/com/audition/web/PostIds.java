@@ -0,0 +1,57 @@
+package com.audition.web;
+
+import com.audition.common.exception.SystemException;
+
+/*
+Validates post ids without going through NumberFormatException. Accepts exactly what Integer.valueOf accepts (an
+optional sign and decimal digits within the int range) and reports rejected ids with the message Integer.valueOf
+would have produced.
+ */
+final class PostIds {
+
+    static final String BAD_REQUEST = "Bad Request";
+    private static final int RADIX = 10;
+
+    private PostIds() {
+    }
+
+    static void validate(final String postId) {
+        if (!isInteger(postId)) {
+            throw SystemException.clientError(invalid(postId), BAD_REQUEST, 400);
+        }
+    }
+
+    static String invalid(final String postId) {
+        return String.format("Invalid postId: %s, Invalid number %s", postId, parseFailure(postId));
+    }
+
+    static boolean isInteger(final String value) {
+        if (value == null || value.isEmpty()) {
+            return false;
+        }
+        final char first = value.charAt(0);
+        final boolean negative = first == '-';
+        final int start = negative || first == '+' ? 1 : 0;
+        if (start == value.length()) {
+            return false;
+        }
+        // Accumulated negatively like Integer.parseInt, so that Integer.MIN_VALUE fits.
+        final long limit = negative ? Integer.MIN_VALUE : -(long) Integer.MAX_VALUE;
+        long result = 0;
+        for (int i = start; i < value.length(); i++) {
+            final int digit = Character.digit(value.charAt(i), RADIX);
+            if (digit < 0) {
+                return false;
+            }
+            result = result * RADIX - digit;
+            if (result < limit) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String parseFailure(final String value) {
+        return value == null ? "Cannot parse null string: null" : "For input string: \"" + value + "\"";
+    }
+}
@@ -0,0 +1,63 @@
+package com.audition.web;
+
+import com.audition.model.AuditionPost;
+import com.audition.model.Comment;
+import com.audition.service.ReactiveAuditionService;
+import com.audition.service.query.PostQuery;
+import jakarta.validation.constraints.NotEmpty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.repository.query.Param;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/*
+Reactive variants of the AuditionController endpoints under /reactive. The servlet thread is released as soon as the
+handler returns, the response is written once the upstream calls complete on the WebClient event loop.
+ */
+@RestController
+@RequestMapping("/reactive")
+public class ReactiveAuditionController {
+
+    @Autowired
+    ReactiveAuditionService reactiveAuditionService;
+
+    @RequestMapping(value = "/posts", method = RequestMethod.GET, produces = MediaType.APPLICATION_JSON_VALUE)
+    public @ResponseBody Flux<AuditionPost> getPosts(@Param("userId") Integer userId, @Param("id") Integer id,
+        @Param("titleLike") String titleLike, @Param("bodyLike") String bodyLike) {
+        final PostQuery query = PostQuery.of(userId, id, titleLike, bodyLike);
+        if (query.isUnrestricted()) {
+            return reactiveAuditionService.getPosts();
+        }
+        final Flux<AuditionPost> responsePosts = reactiveAuditionService.getPosts().filter(query::matches);
+        // Ids are unique, the upstream stream can be cancelled after the first match.
+        return query.getExactId().isPresent() ? responsePosts.take(1) : responsePosts;
+    }
+
+    @RequestMapping(value = "/posts/{postId}", method = RequestMethod.GET, produces = MediaType.APPLICATION_JSON_VALUE)
+    public @ResponseBody Mono<AuditionPost> getPost(@NotEmpty @PathVariable("postId") final String postId) {
+        validatePostId(postId);
+        return reactiveAuditionService.getPostById(postId);
+    }
+
+    @RequestMapping(value = "/posts/{postId}/comments", method = RequestMethod.GET, produces = MediaType.APPLICATION_JSON_VALUE)
+    public @ResponseBody Mono<AuditionPost> getPostWithComments(@NotEmpty @PathVariable("postId") final String postId) {
+        validatePostId(postId);
+        return reactiveAuditionService.getPostWithComments(postId);
+    }
+
+    @RequestMapping(value = "/comments/{postId}", method = RequestMethod.GET, produces = MediaType.APPLICATION_JSON_VALUE)
+    public @ResponseBody Flux<Comment> getPostComments(@NotEmpty @PathVariable("postId") final String postId) {
+        validatePostId(postId);
+        return reactiveAuditionService.getPostComments(postId);
+    }
+
+    private void validatePostId(final String postId) {
+        PostIds.validate(postId);
+    }
+}
@@ -0,0 +1,63 @@
+package com.audition.web;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import org.springframework.http.MediaType;
+
+/*
+A JSON array written to the response one element at a time. Nothing is written before the first element or finish(),
+so a failure before that leaves the response untouched for the error handler. An array that fails midway is not
+closed: the client sees a truncated body instead of a valid but incomplete array.
+ */
+final class StreamedJsonArray<T> implements Closeable {
+
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter writer;
+    private final HttpServletResponse response;
+    private JsonGenerator generator;
+
+    StreamedJsonArray(final ObjectMapper objectMapper, final Class<T> elementType,
+        final HttpServletResponse response) {
+        this.objectMapper = objectMapper;
+        // Elements are written into the generator buffer and flushed in chunks, not one flush per element.
+        this.writer = objectMapper.writerFor(elementType).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.response = response;
+    }
+
+    void write(final T element) {
+        try {
+            start();
+            writer.writeValue(generator, element);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    void finish() throws IOException {
+        start();
+        generator.writeEndArray();
+        generator.close();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (generator != null && !generator.isClosed()) {
+            generator.close();
+        }
+    }
+
+    private void start() throws IOException {
+        if (generator == null) {
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            generator = objectMapper.getFactory().createGenerator(response.getOutputStream())
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+            generator.writeStartArray();
+        }
+    }
+}
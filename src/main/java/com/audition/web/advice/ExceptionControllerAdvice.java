@@ -6,6 +6,8 @@ import static org.springframework.http.HttpStatus.METHOD_NOT_ALLOWED;
 import com.audition.common.exception.SystemException;
 import com.audition.common.logging.AuditionLogger;
 import io.micrometer.common.util.StringUtils;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -25,6 +27,11 @@ public class ExceptionControllerAdvice extends ResponseEntityExceptionHandler {
     private static final Logger LOG = LoggerFactory.getLogger(ExceptionControllerAdvice.class);
     private static final String ERROR_MESSAGE = " Error Code from Exception could not be mapped to a valid HttpStatus Code - ";
     private static final String DEFAULT_MESSAGE = "API Error occurred. Please contact support or administrator.";
+    private static final int MIN_STATUS_CODE = 100;
+    private static final int MAX_STATUS_CODE = 999;
+
+    // Status and default title per status code, resolved once.
+    private final Map<Integer, ProblemDetail> templates = new ConcurrentHashMap<>();
 
     @Autowired
     private AuditionLogger logger;
@@ -57,7 +64,9 @@ public class ExceptionControllerAdvice extends ResponseEntityExceptionHandler {
 
     private ProblemDetail createProblemDetail(final Exception exception,
         final HttpStatusCode statusCode) {
-        final ProblemDetail problemDetail = ProblemDetail.forStatus(statusCode);
+        // Every response gets its own copy, the request path is set on it when it is written.
+        final ProblemDetail problemDetail = new ProblemDetailCopy(
+            templates.computeIfAbsent(statusCode.value(), status -> ProblemDetail.forStatus(statusCode)));
         problemDetail.setDetail(getMessageFromException(exception));
         if (exception instanceof SystemException) {
             problemDetail.setTitle(((SystemException) exception).getTitle());
@@ -75,12 +84,13 @@ public class ExceptionControllerAdvice extends ResponseEntityExceptionHandler {
     }
 
     private HttpStatusCode getHttpStatusCodeFromSystemException(final SystemException exception) {
-        try {
-            return HttpStatusCode.valueOf(exception.getStatusCode());
-        } catch (final IllegalArgumentException iae) {
-            logger.error(LOG, ERROR_MESSAGE + exception.getStatusCode());
+        // Range checked up front instead of catching the IllegalArgumentException of HttpStatusCode.valueOf.
+        final Integer statusCode = exception.getStatusCode();
+        if (statusCode == null || statusCode < MIN_STATUS_CODE || statusCode > MAX_STATUS_CODE) {
+            logger.error(LOG, ERROR_MESSAGE + statusCode);
             return INTERNAL_SERVER_ERROR;
         }
+        return HttpStatusCode.valueOf(statusCode);
     }
 
     private HttpStatusCode getHttpStatusCodeFromException(final Exception exception) {
@@ -91,7 +101,11 @@ public class ExceptionControllerAdvice extends ResponseEntityExceptionHandler {
         }
         return INTERNAL_SERVER_ERROR;
     }
-}
-
 
+    private static final class ProblemDetailCopy extends ProblemDetail {
 
+        ProblemDetailCopy(final ProblemDetail template) {
+            super(template);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.audition.web.advice;
+
+import com.audition.model.AuditionPost;
+import com.audition.model.Comment;
+import com.audition.model.PostResult;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+/*
+Applies the fields query param (e.g. fields=id,title) to JSON responses. Properties that are not listed are skipped by
+the serializer, the cached posts and comments are neither copied nor changed. The projection applies to the top level
+resource of the response, comments embedded in a post are written in full. Batch results (/posts/batch) are not
+projected, their posts are embedded resources as well.
+ */
+@ControllerAdvice
+public class FieldProjectionAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+    public static final String FIELDS_PARAM = "fields";
+
+    @Override
+    protected void beforeBodyWriteInternal(final MappingJacksonValue bodyContainer, final MediaType contentType,
+        final MethodParameter returnType, final ServerHttpRequest request) {
+        if (!(request instanceof ServletServerHttpRequest servletRequest)) {
+            return;
+        }
+        final Set<String> fields = parseFields(servletRequest.getServletRequest().getParameter(FIELDS_PARAM));
+        if (fields.isEmpty() || isBatch(bodyContainer.getValue())) {
+            return;
+        }
+        final String filterId = isComments(bodyContainer.getValue()) ? Comment.FIELDS_FILTER
+            : AuditionPost.FIELDS_FILTER;
+        bodyContainer.setFilters(new SimpleFilterProvider().setFailOnUnknownId(false)
+            .addFilter(filterId, SimpleBeanPropertyFilter.filterOutAllExcept(fields)));
+    }
+
+    static Set<String> parseFields(final String fields) {
+        final Set<String> names = new LinkedHashSet<>();
+        if (StringUtils.hasText(fields)) {
+            for (final String name : StringUtils.tokenizeToStringArray(fields, ",")) {
+                names.add(name);
+            }
+        }
+        return names;
+    }
+
+    private static boolean isBatch(final Object value) {
+        return value instanceof List<?> list && !list.isEmpty() && list.get(0) instanceof PostResult;
+    }
+
+    private static boolean isComments(final Object value) {
+        if (value instanceof List<?> list) {
+            return !list.isEmpty() && list.get(0) instanceof Comment;
+        }
+        return value instanceof Comment;
+    }
+}
@@ -0,0 +1,66 @@
+package com.audition.web.advice;
+
+import com.audition.configuration.HttpCacheProperties;
+import com.audition.service.ResponseFreshness;
+import com.audition.service.ResponseFreshness.State;
+import com.audition.web.ConditionalGetInterceptor;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/*
+Tells clients how old the cached upstream data in a response is. Age is set whenever cached data was served, a Warning
+is added when that data was stale (110) or could not be revalidated against the upstream (111). Successful responses
+also get the ETag of the content version served and a Cache-Control header, see ConditionalGetInterceptor.
+ */
+@ControllerAdvice
+public class FreshnessHeaderAdvice implements ResponseBodyAdvice<Object> {
+
+    static final String STALE_WARNING = "110 - \"Response is Stale\"";
+    static final String REVALIDATION_FAILED_WARNING = "111 - \"Revalidation Failed\"";
+
+    private final CacheControl cacheControl;
+
+    public FreshnessHeaderAdvice(final HttpCacheProperties httpCacheProperties) {
+        this.cacheControl = ConditionalGetInterceptor.cacheControl(httpCacheProperties);
+    }
+
+    @Override
+    public boolean supports(final MethodParameter returnType,
+        final Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(final Object body, final MethodParameter returnType,
+        final MediaType selectedContentType, final Class<? extends HttpMessageConverter<?>> selectedConverterType,
+        final ServerHttpRequest request, final ServerHttpResponse response) {
+        ResponseFreshness.current().ifPresent(freshness -> {
+            final HttpHeaders headers = response.getHeaders();
+            headers.set(HttpHeaders.AGE, Long.toString(freshness.getAgeSeconds()));
+            if (freshness.getState() == State.STALE) {
+                headers.set(HttpHeaders.WARNING, STALE_WARNING);
+            } else if (freshness.getState() == State.REVALIDATION_FAILED) {
+                headers.set(HttpHeaders.WARNING, REVALIDATION_FAILED_WARNING);
+            }
+            // Error responses written after the data was read are neither tagged nor cacheable, nor are answers to
+            // POST /posts/batch.
+            if (response instanceof ServletServerHttpResponse servletResponse
+                && servletResponse.getServletResponse().getStatus() == HttpStatus.OK.value()
+                && (HttpMethod.GET.equals(request.getMethod()) || HttpMethod.HEAD.equals(request.getMethod()))) {
+                headers.setETag(ConditionalGetInterceptor.entityTag(freshness.getVersion()));
+                headers.setCacheControl(cacheControl);
+            }
+        });
+        return body;
+    }
+}
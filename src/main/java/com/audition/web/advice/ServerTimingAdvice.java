@@ -0,0 +1,43 @@
+package com.audition.web.advice;
+
+import com.audition.common.timing.RequestTiming;
+import com.audition.configuration.PhaseTimingProperties;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/*
+Returns the phases of the request in a Server-Timing header, next to X-Trace-Id and X-Span-Id. Headers go out before
+the body, so serialization is only included when the body is encoded up front (cached bodies, see
+CachedJsonHttpMessageConverter). It is always part of the http.server.phases timers.
+ */
+@ControllerAdvice
+public class ServerTimingAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String SERVER_TIMING = "Server-Timing";
+
+    private final boolean enabled;
+
+    public ServerTimingAdvice(final PhaseTimingProperties properties) {
+        this.enabled = properties.isServerTimingHeader();
+    }
+
+    @Override
+    public boolean supports(final MethodParameter returnType,
+        final Class<? extends HttpMessageConverter<?>> converterType) {
+        return enabled;
+    }
+
+    @Override
+    public Object beforeBodyWrite(final Object body, final MethodParameter returnType,
+        final MediaType selectedContentType, final Class<? extends HttpMessageConverter<?>> selectedConverterType,
+        final ServerHttpRequest request, final ServerHttpResponse response) {
+        RequestTiming.current().map(RequestTiming::toServerTiming).filter(value -> !value.isEmpty())
+            .ifPresent(value -> response.getHeaders().set(SERVER_TIMING, value));
+        return body;
+    }
+}
@@ -0,0 +1,78 @@
+package com.audition.common.logging;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class AsyncJsonLinesAppenderTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testWritesStructuredEventsAsJsonLines() throws Exception {
+        final Path file = directory.resolve("audition.jsonl");
+        final LoggerContext context = new LoggerContext();
+        final AsyncJsonLinesAppender appender = new AsyncJsonLinesAppender();
+        appender.setContext(context);
+        appender.setName("jsonlines");
+        appender.setFile(file.toString());
+        appender.setBatchSize(2);
+        appender.start();
+        final Logger logger = context.getLogger("com.audition.test");
+        logger.addAppender(appender);
+
+        new AuditionLogger().logInfo(logger, "Upstream response", "status", 200, "uri", "/posts/1");
+        logger.warn("plain {}", "message");
+        logger.error("failed", new IllegalStateException("boom"));
+        appender.stop();
+
+        final List<String> lines = Files.readAllLines(file);
+        assertEquals(3, lines.size());
+        final ObjectMapper objectMapper = new ObjectMapper();
+        final JsonNode structured = objectMapper.readTree(lines.get(0));
+        assertEquals("INFO", structured.get("level").asText());
+        assertEquals("Upstream response", structured.get("message").asText());
+        assertEquals(200, structured.get("status").asInt());
+        assertEquals("/posts/1", structured.get("uri").asText());
+        assertEquals("plain message", objectMapper.readTree(lines.get(1)).get("message").asText());
+        assertTrue(objectMapper.readTree(lines.get(2)).get("exception").asText().contains("boom"));
+        assertEquals(3, appender.getWrittenCount());
+        assertEquals(0, appender.getDroppedCount());
+    }
+
+    @Test
+    void testDropOldestNeverEvictsEventsAtNeverDropLevel() {
+        final LoggerContext context = new LoggerContext();
+        final Logger logger = context.getLogger("com.audition.test");
+        final ILoggingEvent error = event(logger, Level.ERROR);
+        final ILoggingEvent warn = event(logger, Level.WARN);
+        final ILoggingEvent info = event(logger, Level.INFO);
+        final BlockingQueue<ILoggingEvent> queue = new ArrayBlockingQueue<>(3);
+        queue.addAll(List.of(error, info, warn));
+
+        assertTrue(AsyncJsonLinesAppender.evictOldestBelow(queue, Level.WARN));
+        assertEquals(List.of(error, warn), List.copyOf(queue));
+        assertFalse(AsyncJsonLinesAppender.evictOldestBelow(queue, Level.WARN));
+        assertEquals(List.of(error, warn), List.copyOf(queue));
+    }
+
+    private static ILoggingEvent event(final Logger logger, final Level level) {
+        return new LoggingEvent(Logger.class.getName(), logger, level, level + " event", null, null);
+    }
+}
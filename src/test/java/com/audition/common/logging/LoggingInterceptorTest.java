@@ -0,0 +1,101 @@
+package com.audition.common.logging;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+import com.audition.configuration.UpstreamLoggingProperties;
+import com.audition.configuration.UpstreamLoggingProperties.RouteSampling;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+class LoggingInterceptorTest {
+
+    private static final String URL = "http://upstream/posts/1";
+
+    private final List<Map<Object, Object>> logged = new ArrayList<>();
+    private final AuditionLogger auditionLogger = new AuditionLogger() {
+        @Override
+        public void logInfo(final Logger logger, final String message, final Object... keyValues) {
+            final Map<Object, Object> fields = new HashMap<>();
+            for (int i = 0; i + 1 < keyValues.length; i += 2) {
+                fields.put(keyValues[i], keyValues[i + 1]);
+            }
+            logged.add(fields);
+        }
+    };
+
+    @Test
+    void testSampledResponseIsCappedAndPassedThrough() {
+        final UpstreamLoggingProperties properties = new UpstreamLoggingProperties();
+        properties.setSuccessSampleRate(1.0);
+        properties.setMaxBodyBytes(10);
+        final RestTemplate restTemplate = restTemplate(properties);
+        final MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).build();
+        server.expect(requestTo(URL)).andRespond(withSuccess("0123456789abcdef", MediaType.TEXT_PLAIN));
+
+        assertEquals("0123456789abcdef", restTemplate.getForObject(URL, String.class));
+        assertEquals(1, logged.size());
+        assertEquals(200, logged.get(0).get("status"));
+        assertEquals("0123456789...(6 bytes truncated)", logged.get(0).get("responseBody"));
+    }
+
+    @Test
+    void testUnsampledSuccessIsNotLogged() {
+        final UpstreamLoggingProperties properties = new UpstreamLoggingProperties();
+        properties.setSuccessSampleRate(0.0);
+        final RestTemplate restTemplate = restTemplate(properties);
+        final MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).build();
+        server.expect(requestTo(URL)).andRespond(withSuccess("body", MediaType.TEXT_PLAIN));
+
+        assertEquals("body", restTemplate.getForObject(URL, String.class));
+        assertTrue(logged.isEmpty());
+    }
+
+    @Test
+    void testErrorsAreLoggedWhenSuccessesAreNot() {
+        final UpstreamLoggingProperties properties = new UpstreamLoggingProperties();
+        properties.setSuccessSampleRate(0.0);
+        final RestTemplate restTemplate = restTemplate(properties);
+        final MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).build();
+        server.expect(requestTo(URL)).andRespond(withStatus(HttpStatus.NOT_FOUND).body("{}"));
+
+        assertThrows(HttpClientErrorException.class, () -> restTemplate.getForObject(URL, String.class));
+        assertEquals(1, logged.size());
+        assertEquals(404, logged.get(0).get("status"));
+        assertEquals("{}", logged.get(0).get("responseBody"));
+    }
+
+    @Test
+    void testStatusRateWinsOverRouteRate() {
+        final UpstreamLoggingProperties properties = new UpstreamLoggingProperties();
+        properties.setSuccessSampleRate(0.0);
+        properties.setStatusSampleRates(Map.of(404, 0.0));
+        properties.setRoutes(List.of(new RouteSampling("/posts", 0.0), new RouteSampling("/posts/1", 1.0)));
+        final LoggingInterceptor interceptor = new LoggingInterceptor(auditionLogger, properties);
+
+        assertTrue(interceptor.isSampled("/posts/1", 200));
+        assertFalse(interceptor.isSampled("/posts/2", 200));
+        assertFalse(interceptor.isSampled("/posts/1", 404));
+        assertTrue(interceptor.isSampled("/posts/1", 500));
+    }
+
+    private RestTemplate restTemplate(final UpstreamLoggingProperties properties) {
+        final RestTemplate restTemplate = new RestTemplate();
+        restTemplate.getInterceptors().add(new LoggingInterceptor(auditionLogger, properties));
+        return restTemplate;
+    }
+}
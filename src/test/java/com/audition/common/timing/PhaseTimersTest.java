@@ -0,0 +1,34 @@
+package com.audition.common.timing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.audition.common.timing.RequestTiming.Phase;
+import com.audition.configuration.PhaseTimingProperties;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class PhaseTimersTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PhaseTimers phaseTimers = new PhaseTimers(meterRegistry, new PhaseTimingProperties());
+
+    @Test
+    void testRecordsIntoOneTimerPerUriAndPhase() {
+        phaseTimers.recordServer("/posts/{postId}", Phase.UPSTREAM, 1_000_000);
+        phaseTimers.recordServer("/posts/{postId}", Phase.UPSTREAM, 3_000_000);
+        phaseTimers.recordServer("/posts", Phase.UPSTREAM, 5_000_000);
+        phaseTimers.recordClient("/posts/{id}", Phase.UPSTREAM, 7_000_000);
+
+        final Timer timer = meterRegistry.find(PhaseTimers.SERVER_PHASES).tag("uri", "/posts/{postId}")
+            .tag("phase", Phase.UPSTREAM.getMetricName()).timer();
+        assertEquals(2, timer.count());
+        assertEquals(4, timer.totalTime(TimeUnit.MILLISECONDS), 0.001);
+        assertEquals(1, meterRegistry.find(PhaseTimers.SERVER_PHASES).tag("uri", "/posts").timer().count());
+        assertEquals(1, meterRegistry.find(PhaseTimers.CLIENT_PHASES).timer().count());
+        // Phases that were never recorded are not registered.
+        assertNull(meterRegistry.find(PhaseTimers.SERVER_PHASES).tag("phase", Phase.FILTER.getMetricName()).timer());
+    }
+}
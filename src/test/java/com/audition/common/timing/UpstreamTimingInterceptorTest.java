@@ -0,0 +1,78 @@
+package com.audition.common.timing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+import com.audition.common.timing.RequestTiming.Phase;
+import com.audition.configuration.PhaseTimingProperties;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+class UpstreamTimingInterceptorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void testPhasesAreRecordedPerRouteAndRequest() {
+        final MockHttpServletRequest request = new MockHttpServletRequest();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        final RequestTiming timing = RequestTiming.start(request);
+        final RestTemplate restTemplate = new RestTemplate();
+        restTemplate.getInterceptors()
+            .add(new UpstreamTimingInterceptor(new PhaseTimers(meterRegistry, new PhaseTimingProperties())));
+        final MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).build();
+        server.expect(requestTo("http://upstream/posts/7/comments"))
+            .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON));
+
+        restTemplate.getForObject("http://upstream/posts/7/comments", String.class);
+
+        for (final Phase phase : new Phase[]{Phase.UPSTREAM, Phase.DESERIALIZE}) {
+            final Timer timer = meterRegistry.find(PhaseTimers.CLIENT_PHASES).tag("uri", "/posts/{id}/comments")
+                .tag("phase", phase.getMetricName()).timer();
+            assertNotNull(timer);
+            assertEquals(1, timer.count());
+            assertTrue(timing.getNanos(phase) > 0);
+        }
+        assertEquals(0, timing.getNanos(Phase.FILTER));
+        assertTrue(timing.toServerTiming().startsWith("upstream;dur="));
+        assertTrue(timing.toServerTiming().contains(", deserialize;dur="));
+    }
+
+    @Test
+    void testTimingIsHandedOverToOtherThreads() throws InterruptedException {
+        final MockHttpServletRequest request = new MockHttpServletRequest();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        final RequestTiming timing = RequestTiming.start(request);
+
+        final Thread worker = new Thread(RequestTiming.handOver(() -> RequestTiming.record(Phase.FILTER, 5)));
+        worker.start();
+        worker.join();
+
+        assertEquals(5, timing.getNanos(Phase.FILTER));
+    }
+
+    @Test
+    void testRoute() {
+        assertEquals("/posts", UpstreamTimingInterceptor.route("/posts"));
+        assertEquals("/posts/{id}", UpstreamTimingInterceptor.route("/posts/12"));
+        assertEquals("/posts/{id}/comments", UpstreamTimingInterceptor.route("/posts/12/comments"));
+        assertEquals("/posts/1a/", UpstreamTimingInterceptor.route("/posts/1a/"));
+        assertEquals("/", UpstreamTimingInterceptor.route(""));
+    }
+}
@@ -0,0 +1,65 @@
+package com.audition.configuration;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+class CachingAuthenticationProviderTest {
+
+    private final AuthenticationProvider delegate = mock(AuthenticationProvider.class);
+    private final AtomicLong time = new AtomicLong();
+    private final CachingAuthenticationProvider provider =
+        new CachingAuthenticationProvider(delegate, new CredentialCacheProperties(), time::get);
+
+    @Test
+    void testVerifiedCredentialsAreCached() {
+        final Authentication authenticated = UsernamePasswordAuthenticationToken.authenticated("admin", null, List.of());
+        when(delegate.authenticate(any())).thenReturn(authenticated);
+
+        Assertions.assertSame(authenticated, provider.authenticate(token("admin", "secret")));
+        Assertions.assertSame(authenticated, provider.authenticate(token("admin", "secret")));
+
+        verify(delegate, times(1)).authenticate(any());
+    }
+
+    @Test
+    void testOtherPasswordIsVerified() {
+        when(delegate.authenticate(any()))
+            .thenReturn(UsernamePasswordAuthenticationToken.authenticated("admin", null, List.of()))
+            .thenThrow(new BadCredentialsException("Bad credentials"));
+
+        provider.authenticate(token("admin", "secret"));
+
+        Assertions.assertThrows(BadCredentialsException.class, () -> provider.authenticate(token("admin", "wrong")));
+    }
+
+    @Test
+    void testFailuresAndExpiredEntriesAreNotCached() {
+        when(delegate.authenticate(any()))
+            .thenThrow(new BadCredentialsException("Bad credentials"))
+            .thenReturn(UsernamePasswordAuthenticationToken.authenticated("admin", null, List.of()));
+
+        Assertions.assertThrows(BadCredentialsException.class, () -> provider.authenticate(token("admin", "secret")));
+        provider.authenticate(token("admin", "secret"));
+        time.addAndGet(Duration.ofMinutes(6).toNanos());
+        provider.authenticate(token("admin", "secret"));
+
+        verify(delegate, times(3)).authenticate(any());
+    }
+
+    private static UsernamePasswordAuthenticationToken token(final String username, final String password) {
+        return UsernamePasswordAuthenticationToken.unauthenticated(username, password);
+    }
+}
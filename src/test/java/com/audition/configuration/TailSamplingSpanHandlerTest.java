@@ -0,0 +1,77 @@
+package com.audition.configuration;
+
+import brave.ScopedSpan;
+import brave.Tracer;
+import brave.Tracing;
+import brave.sampler.Sampler;
+import com.audition.configuration.TraceSamplingProperties.Tail;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import zipkin2.Span;
+import zipkin2.reporter.brave.ZipkinSpanHandler;
+
+class TailSamplingSpanHandlerTest {
+
+    private final List<Span> exported = new CopyOnWriteArrayList<>();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private Tracing tracing;
+
+    @BeforeEach
+    void setUp() {
+        final Tail tail = new Tail();
+        tail.setMinSlowDuration(Duration.ofHours(1));
+        tracing = Tracing.newBuilder()
+            .sampler(Sampler.NEVER_SAMPLE)
+            .alwaysSampleLocal()
+            .addSpanHandler(new TailSamplingSpanHandler(
+                ZipkinSpanHandler.newBuilder(exported::add).alwaysReportSpans(true).build(), tail, meterRegistry))
+            .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        tracing.close();
+    }
+
+    @Test
+    void testFailedTraceIsExported() {
+        final Tracer tracer = tracing.tracer();
+        final ScopedSpan root = tracer.startScopedSpan("GET /posts/{postId}");
+        tracer.startScopedSpan("upstream").finish();
+        root.tag("status", "503");
+        root.finish();
+
+        Assertions.assertEquals(2, exported.size());
+        Assertions.assertEquals(1.0, meterRegistry.get(TailSamplingSpanHandler.KEPT_METER).tag("reason", "error")
+            .counter().count());
+    }
+
+    @Test
+    void testFastSuccessfulTraceIsDropped() {
+        final Tracer tracer = tracing.tracer();
+        final ScopedSpan root = tracer.startScopedSpan("GET /posts/{postId}");
+        tracer.startScopedSpan("upstream").finish();
+        root.tag("status", "200");
+        root.finish();
+
+        Assertions.assertTrue(exported.isEmpty());
+        Assertions.assertEquals(1L, meterRegistry.get(TailSamplingSpanHandler.ROOT_SPANS_METER).timer().count());
+    }
+
+    @Test
+    void testBudgetCapsSampledTraces() {
+        final BudgetedSampler sampler = new BudgetedSampler(1.0f, 2);
+        int sampled = 0;
+        for (long traceId = 1; traceId <= 10; traceId++) {
+            sampled += sampler.isSampled(traceId) ? 1 : 0;
+        }
+        Assertions.assertEquals(2, sampled);
+    }
+}
@@ -0,0 +1,152 @@
+package com.audition.configuration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.apache.hc.client5.http.config.Configurable;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+class WebServiceConfigurationTest {
+
+    private static final String POOL_GAUGE = "http.client.pool.connections";
+
+    private final WebServiceConfiguration configuration = new WebServiceConfiguration();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ConnectionProperties properties = new ConnectionProperties();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final ExecutorService serverExecutor = Executors.newCachedThreadPool();
+    private HttpServer server;
+    private HttpComponentsClientHttpRequestFactory requestFactory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(serverExecutor);
+        server.createContext("/fast", exchange -> respond(exchange));
+        // Holds the connection until the test releases it.
+        server.createContext("/slow", exchange -> {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange);
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        release.countDown();
+        if (requestFactory != null) {
+            requestFactory.destroy();
+        }
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    void testPooledFactoryAppliesTimeouts() {
+        properties.setConnectTimeout(Duration.ofMillis(300));
+        properties.setResponseTimeout(Duration.ofMillis(400));
+        properties.setPoolAcquireTimeout(Duration.ofMillis(500));
+
+        final RequestConfig requestConfig = ((Configurable) createPooledFactory().getHttpClient()).getConfig();
+
+        assertEquals(300, requestConfig.getConnectTimeout().toMilliseconds());
+        assertEquals(400, requestConfig.getResponseTimeout().toMilliseconds());
+        assertEquals(500, requestConfig.getConnectionRequestTimeout().toMilliseconds());
+    }
+
+    @Test
+    void testResponseTimeout() {
+        properties.setResponseTimeout(Duration.ofMillis(100));
+        final RestTemplate restTemplate = new RestTemplate(createPooledFactory());
+
+        final ResourceAccessException exception = assertThrows(ResourceAccessException.class,
+            () -> restTemplate.getForObject(url("/slow"), String.class));
+
+        assertInstanceOf(SocketTimeoutException.class, exception.getCause());
+    }
+
+    @Test
+    void testPoolAcquireTimeoutAndPoolGauges() throws Exception {
+        properties.setMaxConnections(1);
+        properties.setMaxConnectionsPerRoute(1);
+        properties.setPoolAcquireTimeout(Duration.ofMillis(100));
+        final RestTemplate restTemplate = new RestTemplate(createPooledFactory());
+        assertEquals(1, gauge("max"));
+        assertEquals(0, gauge("leased"));
+
+        final CompletableFuture<String> holder = CompletableFuture.supplyAsync(
+            () -> restTemplate.getForObject(url("/slow"), String.class));
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (gauge("leased") < 1 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, gauge("leased"));
+        assertEquals(0, gauge("available"));
+
+        // The only connection is leased, the next request gives up after the pool acquire timeout.
+        final long started = System.nanoTime();
+        assertThrows(ResourceAccessException.class, () -> restTemplate.getForObject(url("/fast"), String.class));
+        assertTrue(System.nanoTime() - started < TimeUnit.SECONDS.toNanos(3));
+
+        release.countDown();
+        assertEquals("ok", holder.get(5, TimeUnit.SECONDS));
+        assertEquals(0, gauge("leased"));
+        assertEquals(1, gauge("available"));
+        assertEquals(0, gauge("pending"));
+        assertEquals("ok", restTemplate.getForObject(url("/fast"), String.class));
+    }
+
+    private HttpComponentsClientHttpRequestFactory createPooledFactory() {
+        final ClientHttpRequestFactory factory = configuration.upstreamRequestFactory(properties, meterRegistry);
+        requestFactory = assertInstanceOf(HttpComponentsClientHttpRequestFactory.class, factory);
+        return requestFactory;
+    }
+
+    private double gauge(final String state) {
+        final Gauge gauge = meterRegistry.find(POOL_GAUGE).tag("client", "upstream").tag("state", state).gauge();
+        assertNotNull(gauge);
+        return gauge.value();
+    }
+
+    private String url(final String path) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+    }
+
+    private static void respond(final HttpExchange exchange) throws IOException {
+        final byte[] content = "ok".getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain");
+        exchange.sendResponseHeaders(200, content.length);
+        try (OutputStream body = exchange.getResponseBody()) {
+            body.write(content);
+        }
+    }
+}
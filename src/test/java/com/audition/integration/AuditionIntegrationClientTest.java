@@ -1,19 +1,30 @@
 package com.audition.integration;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
 import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
 
 import com.audition.common.exception.SystemException;
+import com.audition.configuration.UpstreamResilienceProperties;
 import com.audition.model.AuditionPost;
 import com.audition.model.Comment;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -22,6 +33,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -78,6 +90,34 @@ class AuditionIntegrationClientTest {
         mockServer.reset();
     }
 
+    /*
+    Test the streaming external API call for Get Posts, only matching posts are passed on
+     */
+    @Test
+    public void testStreamPosts() {
+        MockRestServiceServer mockServer = MockRestServiceServer.createServer(restTemplate);
+        mockServer.expect(ExpectedCount.once(), requestTo(externalApiUrl + "/posts"))
+            .andRespond(withSuccess(
+                "[{  \"userId\": 1,"
+                    + "    \"id\": 1,"
+                    + "    \"title\": \"title 1\","
+                    + "    \"body\": \"body 1\""
+                    + "  },"
+                    + "  {"
+                    + "    \"userId\": 2,"
+                    + "    \"id\": 2,"
+                    + "    \"title\": \"title 2\","
+                    + "    \"body\": \"body 2\""
+                    + "  }]", MediaType.APPLICATION_JSON));
+        List<AuditionPost> auditionPostsList = new ArrayList<>();
+        auditionIntegrationClient.streamPosts(post -> post.getUserId() == 2, auditionPostsList::add);
+        mockServer.verify();
+        assertEquals(1, auditionPostsList.size());
+        assertEquals(2, auditionPostsList.get(0).getId());
+        assertEquals("title 2", auditionPostsList.get(0).getTitle());
+        mockServer.reset();
+    }
+
     /*
     Test the external API call for Get Comments HttpClientErrorException Scenario Other than 404
 `   */
@@ -116,6 +156,30 @@ class AuditionIntegrationClientTest {
         assertEquals(11, auditionPost.getId());
     }
 
+    /*
+    Test that a 304 answer to the conditional request reuses the posts read the first time
+     */
+    @Test
+    public void testGetPostsNotModified() {
+        RestTemplate conditionalRestTemplate = new RestTemplate();
+        MockRestServiceServer mockServer = MockRestServiceServer.createServer(conditionalRestTemplate);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag("\"v1\"");
+        mockServer.expect(ExpectedCount.once(), requestTo(externalApiUrl + "/posts"))
+            .andRespond(withSuccess("[{\"userId\": 1, \"id\": 1, \"title\": \"title 1\", \"body\": \"body 1\"}]",
+                MediaType.APPLICATION_JSON).headers(headers));
+        mockServer.expect(ExpectedCount.once(), requestTo(externalApiUrl + "/posts"))
+            .andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"v1\""))
+            .andRespond(withStatus(HttpStatus.NOT_MODIFIED));
+
+        AuditionIntegrationClient auditionIntegrationClient = new AuditionIntegrationClient(conditionalRestTemplate);
+        auditionIntegrationClient.setExternalApiUrl(externalApiUrl);
+        List<AuditionPost> auditionPostsList = auditionIntegrationClient.getPosts();
+
+        assertSame(auditionPostsList, auditionIntegrationClient.getPosts());
+        mockServer.verify();
+    }
+
     /*
     Test HttpClientErrorException Scenario where status code is 404
      */
@@ -123,8 +187,9 @@ class AuditionIntegrationClientTest {
     public void testGetPostByIdExceptionScenario() {
         RestTemplate restTemplateMock = spy(RestTemplate.class);
 
-        when(restTemplateMock.getForEntity(externalApiUrl + "/posts/11", AuditionPost.class))
-            .thenThrow(new HttpClientErrorException(HttpStatus.NOT_FOUND, ERR_NOT_FOUND));
+        doThrow(new HttpClientErrorException(HttpStatus.NOT_FOUND, ERR_NOT_FOUND)).when(restTemplateMock)
+            .exchange(eq(externalApiUrl + "/posts/11"), eq(HttpMethod.GET), any(HttpEntity.class),
+                eq(AuditionPost.class));
 
         AuditionIntegrationClient auditionIntegrationClient = new AuditionIntegrationClient(restTemplateMock);
         auditionIntegrationClient.setExternalApiUrl(externalApiUrl);
@@ -142,8 +207,9 @@ class AuditionIntegrationClientTest {
     public void testGetPostByIdGeneralExceptionScenario() {
         RestTemplate mockRestTemplate = spy(RestTemplate.class);
 
-        when(mockRestTemplate.getForEntity(externalApiUrl + "/posts/11", AuditionPost.class))
-            .thenThrow(new HttpClientErrorException(HttpStatus.INTERNAL_SERVER_ERROR, "Unknown Error Occurred"));
+        doThrow(new HttpClientErrorException(HttpStatus.INTERNAL_SERVER_ERROR, "Unknown Error Occurred"))
+            .when(mockRestTemplate).exchange(eq(externalApiUrl + "/posts/11"), eq(HttpMethod.GET),
+                any(HttpEntity.class), eq(AuditionPost.class));
 
         AuditionIntegrationClient auditionIntegrationClient = new AuditionIntegrationClient(mockRestTemplate);
         auditionIntegrationClient.setExternalApiUrl(externalApiUrl);
@@ -161,7 +227,8 @@ class AuditionIntegrationClientTest {
      */
     @Test
     public void testGetPostWithComments() {
-        MockRestServiceServer mockServer = MockRestServiceServer.createServer(restTemplate);
+        // The post and its comments are fetched in parallel, so the two requests may arrive in any order.
+        MockRestServiceServer mockServer = MockRestServiceServer.bindTo(restTemplate).ignoreExpectOrder(true).build();
         String postId = "100";
 
         //Return the mock comments
@@ -245,6 +312,37 @@ class AuditionIntegrationClientTest {
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR.value(), systemException.getStatusCode());
     }
 
+    /*
+    Test that the post lookup is cancelled once the comments lookup of Get Post With Comments failed
+     */
+    @Test
+    public void testGetPostWithCommentsCancelsPostLookupOnFailure() {
+        RestTemplate mockRestTemplate = mock(RestTemplate.class);
+        when(mockRestTemplate.exchange(eq(getUrl("105")), eq(HttpMethod.GET), any(HttpEntity.class),
+            any(ParameterizedTypeReference.class)))
+            .thenThrow(new HttpClientErrorException(HttpStatus.NOT_FOUND, ERR_NOT_FOUND));
+        // The comments lookup runs right away, the post lookup waits for a thread until the test runs it.
+        List<Runnable> waiting = new ArrayList<>();
+        AtomicInteger submitted = new AtomicInteger();
+        Executor executor = task -> {
+            if (submitted.getAndIncrement() == 0) {
+                task.run();
+            } else {
+                waiting.add(task);
+            }
+        };
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AuditionIntegrationClient auditionIntegrationClient = new AuditionIntegrationClient(mockRestTemplate,
+            executor, meterRegistry, new UpstreamResilience(new UpstreamResilienceProperties(), meterRegistry));
+        auditionIntegrationClient.setExternalApiUrl(externalApiUrl);
+
+        assertThrows(SystemException.class, () -> auditionIntegrationClient.getPostWithComments("105"));
+        waiting.forEach(Runnable::run);
+
+        verify(mockRestTemplate, never()).exchange(eq(externalApiUrl + "/posts/105"), eq(HttpMethod.GET),
+            any(HttpEntity.class), eq(AuditionPost.class));
+    }
+
     /*
     Test the external API call for Get Comments
      */
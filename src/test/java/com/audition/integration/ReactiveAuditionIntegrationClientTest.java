@@ -0,0 +1,124 @@
+package com.audition.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.audition.common.exception.SystemException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class ReactiveAuditionIntegrationClientTest {
+
+    private static final String BASE_URL = "http://upstream";
+
+    private final Map<String, ClientResponse> responses = new HashMap<>();
+    private final Map<String, HttpHeaders> requestHeaders = new ConcurrentHashMap<>();
+
+    private final ReactiveAuditionIntegrationClient reactiveAuditionIntegrationClient =
+        new ReactiveAuditionIntegrationClient(WebClient.builder()
+            .baseUrl(BASE_URL)
+            .exchangeFunction(request -> {
+                requestHeaders.put(request.url().getPath(), request.headers());
+                return Mono.justOrEmpty(responses.get(request.url().getPath()));
+            })
+            .build());
+
+    @Test
+    void testGetPosts() {
+        respond("/posts", HttpStatus.OK, "[{\"userId\": 1, \"id\": 1, \"title\": \"title 1\", \"body\": \"body 1\"},"
+            + "{\"userId\": 1, \"id\": 2, \"title\": \"title 2\", \"body\": \"body 2\"}]");
+
+        StepVerifier.create(reactiveAuditionIntegrationClient.getPosts())
+            .expectNextMatches(post -> post.getId() == 1 && "title 1".equals(post.getTitle()))
+            .expectNextMatches(post -> post.getId() == 2 && "body 2".equals(post.getBody()))
+            .verifyComplete();
+    }
+
+    @Test
+    void testGetPostByIdNotFound() {
+        respond("/posts/11", HttpStatus.NOT_FOUND, "{}");
+
+        StepVerifier.create(reactiveAuditionIntegrationClient.getPostById("11"))
+            .expectErrorSatisfies(error -> {
+                assertEquals(SystemException.class, error.getClass());
+                assertEquals(HttpStatus.NOT_FOUND.value(), ((SystemException) error).getStatusCode());
+                assertEquals("Cannot find a Post with id 11", ((SystemException) error).getDetail());
+            })
+            .verify();
+    }
+
+    @Test
+    void testGetPostCommentsOtherClientError() {
+        respond("/posts/12/comments", HttpStatus.BAD_REQUEST, "{}");
+
+        StepVerifier.create(reactiveAuditionIntegrationClient.getPostComments("12"))
+            .expectErrorSatisfies(error ->
+                assertEquals(HttpStatus.INTERNAL_SERVER_ERROR.value(), ((SystemException) error).getStatusCode()))
+            .verify();
+    }
+
+    @Test
+    void testGetPostWithComments() {
+        respond("/posts/100", HttpStatus.OK, "{\"userId\": 1, \"id\": 100, \"title\": \"title 1\", \"body\": \"body 1\"}");
+        respond("/posts/100/comments", HttpStatus.OK,
+            "[{\"postId\": 100, \"id\": 1, \"name\": \"name 1\", \"email\": \"a@b.com\", \"body\": \"body\"},"
+                + "{\"postId\": 100, \"id\": 2, \"name\": \"name 2\", \"email\": \"c@d.com\", \"body\": \"body\"}]");
+
+        StepVerifier.create(reactiveAuditionIntegrationClient.getPostWithComments("100"))
+            .assertNext(post -> {
+                assertEquals(100, post.getId());
+                assertEquals("title 1", post.getTitle());
+                assertEquals(2, post.getComments().size());
+                assertEquals(2, post.getComments().get(1).getId());
+            })
+            .verifyComplete();
+    }
+
+    @Test
+    void testGetPostWithCommentsReportsMissingCommentsFirst() {
+        respond("/posts/101", HttpStatus.NOT_FOUND, "{}");
+        respond("/posts/101/comments", HttpStatus.NOT_FOUND, "{}");
+
+        StepVerifier.create(reactiveAuditionIntegrationClient.getPostWithComments("101"))
+            .expectErrorSatisfies(error ->
+                assertEquals("Cannot find comments for a Post with id 101", ((SystemException) error).getDetail()))
+            .verify();
+    }
+
+    @Test
+    void testGetPostWithCommentsMissingPost() {
+        respond("/posts/102", HttpStatus.NOT_FOUND, "{}");
+        respond("/posts/102/comments", HttpStatus.OK, "[]");
+
+        StepVerifier.create(reactiveAuditionIntegrationClient.getPostWithComments("102"))
+            .expectErrorSatisfies(error ->
+                assertEquals("Cannot find a Post with id 102", ((SystemException) error).getDetail()))
+            .verify();
+    }
+
+    @Test
+    void testRequestsCarryTheUpstreamHeaders() {
+        respond("/posts", HttpStatus.OK, "[]");
+
+        StepVerifier.create(reactiveAuditionIntegrationClient.getPosts()).verifyComplete();
+
+        final HttpHeaders headers = requestHeaders.get("/posts");
+        AuditionIntegrationClient.upstreamHeaders()
+            .forEach((name, values) -> assertEquals(values, headers.get(name)));
+    }
+
+    private void respond(final String path, final HttpStatus status, final String body) {
+        responses.put(path, ClientResponse.create(status)
+            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+            .body(body)
+            .build());
+    }
+}
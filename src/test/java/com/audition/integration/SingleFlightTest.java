@@ -0,0 +1,114 @@
+package com.audition.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.audition.common.exception.SystemException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class SingleFlightTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SingleFlight singleFlight = new SingleFlight(meterRegistry);
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testConcurrentCallersShareOneCall() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger calls = new AtomicInteger();
+        final Object result = new Object();
+        final Supplier<Object> call = () -> {
+            calls.incrementAndGet();
+            await(release);
+            return result;
+        };
+
+        final CompletableFuture<Object> leader =
+            CompletableFuture.supplyAsync(() -> singleFlight.execute("post", "/posts/1", call), executor);
+        awaitInFlight(1);
+        final CompletableFuture<Object> follower =
+            CompletableFuture.supplyAsync(() -> singleFlight.execute("post", "/posts/1", call), executor);
+        awaitCoalesced(1);
+        release.countDown();
+
+        assertSame(result, leader.get(5, TimeUnit.SECONDS));
+        assertSame(result, follower.get(5, TimeUnit.SECONDS));
+        assertEquals(1, calls.get());
+        assertEquals(0, meterRegistry.get(SingleFlight.IN_FLIGHT_METER).gauge().value());
+    }
+
+    @Test
+    void testFailureIsSharedAndNotRemembered() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final SystemException failure = new SystemException("Cannot find a Post with id 1", "Resource Not Found", 404);
+        final Supplier<Object> failingCall = () -> {
+            await(release);
+            throw failure;
+        };
+
+        final CompletableFuture<Object> leader =
+            CompletableFuture.supplyAsync(() -> singleFlight.execute("post", "/posts/1", failingCall), executor);
+        awaitInFlight(1);
+        final CompletableFuture<Object> follower =
+            CompletableFuture.supplyAsync(() -> singleFlight.execute("post", "/posts/1", failingCall), executor);
+        awaitCoalesced(1);
+        release.countDown();
+
+        final Exception leaderError = assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+        final Exception followerError = assertThrows(Exception.class, () -> follower.get(5, TimeUnit.SECONDS));
+        assertSame(failure, leaderError.getCause());
+        assertSame(failure, followerError.getCause());
+        // The next caller issues a new request.
+        assertEquals("ok", singleFlight.execute("post", "/posts/1", () -> "ok"));
+    }
+
+    @Test
+    void testDifferentKeysAreNotCoalesced() {
+        assertEquals("a", singleFlight.execute("post", "/posts/1", () -> "a"));
+        assertEquals("b", singleFlight.execute("post", "/posts/2", () -> "b"));
+        assertEquals(0, meterRegistry.find(SingleFlight.COALESCED_METER).counters().size());
+    }
+
+    private void awaitInFlight(final int count) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get(SingleFlight.IN_FLIGHT_METER).gauge().value() < count
+            && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private void awaitCoalesced(final int count) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (coalesced() < count && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private double coalesced() {
+        return meterRegistry.find(SingleFlight.COALESCED_METER).tag("resource", "post").counters().stream()
+            .mapToDouble(counter -> counter.count()).sum();
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.audition.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+class UpstreamErrorHandlerTest {
+
+    private static final String URL = "http://upstream/posts/101";
+
+    @Test
+    void testNotFoundIsRaisedWithoutStackTrace() {
+        final RestTemplate restTemplate = restTemplate();
+        final MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).build();
+        server.expect(requestTo(URL)).andRespond(withStatus(HttpStatus.NOT_FOUND).body("{}"));
+
+        final HttpClientErrorException exception = assertThrows(HttpClientErrorException.class,
+            () -> restTemplate.getForObject(URL, String.class));
+        assertSame(HttpStatus.NOT_FOUND, exception.getStatusCode());
+        assertEquals(0, exception.getStackTrace().length);
+    }
+
+    @Test
+    void testOtherErrorsAreHandledAsBefore() {
+        final RestTemplate restTemplate = restTemplate();
+        final MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).build();
+        server.expect(requestTo(URL)).andRespond(withStatus(HttpStatus.BAD_REQUEST).body("{}"));
+
+        final HttpClientErrorException exception = assertThrows(HttpClientErrorException.BadRequest.class,
+            () -> restTemplate.getForObject(URL, String.class));
+        assertEquals("{}", exception.getResponseBodyAsString());
+    }
+
+    private static RestTemplate restTemplate() {
+        final RestTemplate restTemplate = new RestTemplate();
+        restTemplate.setErrorHandler(new UpstreamErrorHandler());
+        return restTemplate;
+    }
+}
@@ -0,0 +1,117 @@
+package com.audition.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.audition.common.exception.SystemException;
+import com.audition.configuration.UpstreamResilienceProperties;
+import com.audition.configuration.UpstreamResilienceProperties.EndpointSpec;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpServerErrorException;
+
+class UpstreamResilienceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void testRetriesServerErrors() {
+        final UpstreamResilience resilience = new UpstreamResilience(properties(), meterRegistry);
+        final AtomicInteger calls = new AtomicInteger();
+
+        final String result = resilience.execute(UpstreamResilience.POST, () -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new HttpServerErrorException(HttpStatus.BAD_GATEWAY);
+            }
+            return "post";
+        });
+
+        assertEquals("post", result);
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void testDoesNotRetryClientErrors() {
+        final UpstreamResilience resilience = new UpstreamResilience(properties(), meterRegistry);
+        final AtomicInteger calls = new AtomicInteger();
+
+        final SystemException exception = assertThrows(SystemException.class,
+            () -> resilience.execute(UpstreamResilience.POST, () -> {
+                calls.incrementAndGet();
+                throw new SystemException("Cannot find a Post with id 1", "Resource Not Found", 404);
+            }));
+
+        assertEquals(404, exception.getStatusCode());
+        assertEquals(1, calls.get());
+        assertEquals(CircuitBreaker.State.CLOSED, resilience.getState(UpstreamResilience.POST));
+    }
+
+    @Test
+    void testOpenBreakerFailsFast() {
+        final UpstreamResilience resilience = new UpstreamResilience(properties(), meterRegistry);
+        final AtomicInteger calls = new AtomicInteger();
+        // Three failed attempts fill the sliding window and open the breaker.
+        assertThrows(HttpServerErrorException.class, () -> resilience.execute(UpstreamResilience.COMMENTS, () -> {
+            calls.incrementAndGet();
+            throw new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE);
+        }));
+        assertEquals(CircuitBreaker.State.OPEN, resilience.getState(UpstreamResilience.COMMENTS));
+        final int callsBeforeOpen = calls.get();
+
+        final SystemException exception = assertThrows(SystemException.class,
+            () -> resilience.execute(UpstreamResilience.COMMENTS, calls::incrementAndGet));
+
+        assertEquals(503, exception.getStatusCode());
+        assertEquals(callsBeforeOpen, calls.get());
+        // Other endpoints have their own breaker.
+        assertEquals("post", resilience.execute(UpstreamResilience.POST, () -> "post"));
+    }
+
+    @Test
+    void testFullBulkheadRejects() throws Exception {
+        final UpstreamResilience resilience = new UpstreamResilience(properties(), meterRegistry);
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CompletableFuture<String> running = CompletableFuture.supplyAsync(
+            () -> resilience.executeWithoutRetry(UpstreamResilience.POSTS, () -> {
+                started.countDown();
+                await(release);
+                return "posts";
+            }));
+        await(started);
+
+        final SystemException exception = assertThrows(SystemException.class,
+            () -> resilience.executeWithoutRetry(UpstreamResilience.POSTS, () -> "posts"));
+        release.countDown();
+
+        assertEquals(503, exception.getStatusCode());
+        assertEquals("posts", running.get(5, TimeUnit.SECONDS));
+    }
+
+    private static UpstreamResilienceProperties properties() {
+        final UpstreamResilienceProperties properties = new UpstreamResilienceProperties();
+        for (final EndpointSpec spec : new EndpointSpec[]{properties.getPosts(), properties.getPost(),
+            properties.getComments()}) {
+            spec.getCircuitBreaker().setSlidingWindowSize(3);
+            spec.getCircuitBreaker().setMinimumNumberOfCalls(3);
+            spec.getBulkhead().setMaxConcurrentCalls(1);
+            spec.getRetry().setInitialInterval(Duration.ofMillis(1));
+        }
+        return properties;
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
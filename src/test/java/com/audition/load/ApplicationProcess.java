@@ -0,0 +1,112 @@
+package com.audition.load;
+
+import com.audition.AuditionApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+Runs the application in its own JVM, so that heap and thread metrics read from its actuator describe the application
+alone and not the load generator or the stub upstream of the test. Output goes to the given log file.
+ */
+public class ApplicationProcess implements AutoCloseable {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(60);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final String baseUrl;
+    private final String authorization;
+    private final Process process;
+
+    public ApplicationProcess(final List<String> jvmOptions, final List<String> properties, final Path logFile,
+        final String username, final String password) throws IOException {
+        final int port = freePort();
+        this.baseUrl = "http://127.0.0.1:" + port;
+        this.authorization = "Basic " + Base64.getEncoder()
+            .encodeToString((username + ":" + password).getBytes(StandardCharsets.UTF_8));
+        final List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmOptions);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(AuditionApplication.class.getName());
+        command.add("--server.port=" + port);
+        properties.forEach(property -> command.add("--" + property));
+        this.process = new ProcessBuilder(command).redirectErrorStream(true)
+            .redirectOutput(ProcessBuilder.Redirect.appendTo(logFile.toFile()))
+            .start();
+        awaitStartup();
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    // Current value of a gauge from /actuator/metrics, tags as "key:value".
+    public double metric(final String name, final String... tags) throws IOException, InterruptedException {
+        final StringBuilder uri = new StringBuilder(baseUrl).append("/actuator/metrics/").append(name);
+        for (int i = 0; i < tags.length; i++) {
+            uri.append(i == 0 ? '?' : '&').append("tag=").append(tags[i]);
+        }
+        final HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(uri.toString()))
+            .header("Authorization", authorization).build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IOException("Metric " + name + " returned " + response.statusCode());
+        }
+        final JsonNode body = objectMapper.readTree(response.body());
+        return body.path("measurements").path(0).path("value").asDouble();
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) {
+            process.destroyForcibly().waitFor();
+        }
+    }
+
+    private void awaitStartup() throws IOException {
+        final long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        final HttpRequest health = HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/health")).build();
+        try {
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) {
+                    throw new IOException("Application exited with " + process.exitValue());
+                }
+                try {
+                    if (client.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return;
+                    }
+                } catch (IOException e) {
+                    // Not listening yet.
+                }
+                Thread.sleep(200);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            process.destroyForcibly();
+            throw new IOException("Interrupted while starting the application", e);
+        }
+        process.destroyForcibly();
+        throw new IOException("Application did not start within " + STARTUP_TIMEOUT);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.audition.load;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import com.audition.AuditionApplication;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/*
+Drives every AuditionController endpoint with a mixed workload against the stub upstream and reports p50/p95/p99 latency
+and throughput per endpoint. Run with ./gradlew endpointLoadTest, tune with -Dloadtest.concurrency=200
+-Dloadtest.duration=PT30S -Dloadtest.latency=PT0.05S -Dloadtest.errorRate=0.01 -Dloadtest.postCount=100
+-Dloadtest.bodySize=200 -Dloadtest.idRange=100. Ids outside the post count exercise cold cache entries.
+ */
+@Tag("load")
+class EndpointLoadTest {
+
+    private static final Logger LOG = LoggerFactory.getLogger(EndpointLoadTest.class);
+    private static final String POSTS = "/posts";
+    private static final String POSTS_FILTERED = "/posts?userId&titleLike";
+    private static final String POST = "/posts/{postId}";
+    private static final String POST_WITH_COMMENTS = "/posts/{postId}/comments";
+    private static final String COMMENTS = "/comments/{postId}";
+
+    @Test
+    void measureEndpoints() throws IOException {
+        final int concurrency = Integer.getInteger("loadtest.concurrency", 200);
+        final Duration duration = Duration.parse(System.getProperty("loadtest.duration", "PT30S"));
+        final Duration latency = Duration.parse(System.getProperty("loadtest.latency", "PT0.05S"));
+        final double errorRate = Double.parseDouble(System.getProperty("loadtest.errorRate", "0.0"));
+        final int postCount = Integer.getInteger("loadtest.postCount", 100);
+        final int bodySize = Integer.getInteger("loadtest.bodySize", 200);
+        final int idRange = Integer.getInteger("loadtest.idRange", postCount);
+
+        final List<LoadGenerator.Result> results;
+        try (StubUpstream upstream = new StubUpstream(latency, errorRate, postCount, bodySize);
+            ConfigurableApplicationContext context = startApplication(upstream.getUrl())) {
+            final LoadGenerator loadGenerator = new LoadGenerator(
+                "http://127.0.0.1:" + context.getEnvironment().getProperty("local.server.port"), "admin", "admin123");
+            // A short warm-up run loads the caches and the JIT, its numbers are not reported.
+            loadGenerator.run(concurrency, Duration.ofSeconds(5), () -> nextTarget(idRange));
+            results = new ArrayList<>(loadGenerator.run(concurrency, duration, () -> nextTarget(idRange)));
+        }
+        results.sort(Comparator.comparing(LoadGenerator.Result::endpoint));
+
+        final List<String> report = new ArrayList<>();
+        report.add(String.format("concurrency=%d duration=%s upstream latency=%s error rate=%.3f posts=%d body=%d",
+            concurrency, duration, latency, errorRate, postCount, bodySize));
+        report.add(String.format("%-28s %10s %8s %10s %9s %9s %9s", "endpoint", "requests", "errors", "rps",
+            "p50 ms", "p95 ms", "p99 ms"));
+        for (final LoadGenerator.Result result : results) {
+            report.add(String.format("%-28s %10d %8d %10.1f %9.1f %9.1f %9.1f", result.endpoint(), result.requests(),
+                result.errors(), result.requestsPerSecond(), result.p50(), result.p95(), result.p99()));
+        }
+
+        final Path reportFile = Path.of("build", "reports", "load", "endpoints.txt");
+        Files.createDirectories(reportFile.getParent());
+        Files.write(reportFile, report);
+        LOG.info("Load test report {}:{}{}", reportFile, System.lineSeparator(),
+            String.join(System.lineSeparator(), report));
+        assertFalse(results.isEmpty());
+    }
+
+    // Weighted mix of the AuditionController endpoints.
+    private static LoadGenerator.Target nextTarget(final int idRange) {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final int postId = random.nextInt(1, idRange + 1);
+        final int pick = random.nextInt(100);
+        if (pick < 15) {
+            return new LoadGenerator.Target(POSTS, "/posts");
+        } else if (pick < 25) {
+            return new LoadGenerator.Target(POSTS_FILTERED, "/posts?userId=" + random.nextInt(1, 11)
+                + "&titleLike=" + postId);
+        } else if (pick < 55) {
+            return new LoadGenerator.Target(POST, "/posts/" + postId);
+        } else if (pick < 80) {
+            return new LoadGenerator.Target(POST_WITH_COMMENTS, "/posts/" + postId + "/comments");
+        }
+        return new LoadGenerator.Target(COMMENTS, "/comments/" + postId);
+    }
+
+    private ConfigurableApplicationContext startApplication(final String upstreamUrl) {
+        return new SpringApplicationBuilder(AuditionApplication.class)
+            .properties(
+                "server.port=0",
+                "spring.application.externalApiUrl=" + upstreamUrl,
+                "application.tracing.sampling.probability=0.0",
+                "logging.level.root=WARN")
+            .run();
+    }
+}
@@ -0,0 +1,101 @@
+package com.audition.load;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/*
+Closed-loop load generator. Each of the concurrent users keeps one connection open and sends its next request as soon
+as the previous one has completed, until the duration has elapsed. Latencies are recorded per endpoint.
+ */
+public class LoadGenerator {
+
+    public record Target(String endpoint, String path) {
+
+    }
+
+    public record Result(String endpoint, long requests, long errors, double requestsPerSecond, double p50,
+                         double p95, double p99) {
+
+    }
+
+    private final String baseUrl;
+    private final String authorization;
+
+    public LoadGenerator(final String baseUrl, final String username, final String password) {
+        this.baseUrl = baseUrl;
+        this.authorization = "Basic " + Base64.getEncoder()
+            .encodeToString((username + ":" + password).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public List<Result> run(final int concurrency, final Duration duration, final Supplier<Target> targets) {
+        final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        final Map<String, Timer> timers = new ConcurrentHashMap<>();
+        final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+        final ConnectionProvider connectionProvider = ConnectionProvider.builder("load-generator")
+            .maxConnections(concurrency)
+            .pendingAcquireMaxCount(-1)
+            .build();
+        final HttpClient client = HttpClient.create(connectionProvider)
+            .baseUrl(baseUrl)
+            .headers(headers -> headers.set("Authorization", authorization));
+        final long started = System.nanoTime();
+        final long deadline = started + duration.toNanos();
+        try {
+            Flux.range(0, concurrency)
+                .flatMap(user -> Mono.defer(() -> request(client, targets.get(), registry, timers, errors))
+                    .repeat(() -> System.nanoTime() < deadline), concurrency)
+                .blockLast();
+        } finally {
+            connectionProvider.disposeLater().block();
+        }
+        final double elapsedSeconds = (System.nanoTime() - started) / 1_000_000_000.0;
+        final List<Result> results = new ArrayList<>();
+        timers.forEach((endpoint, timer) -> results.add(toResult(endpoint, timer,
+            errors.getOrDefault(endpoint, new LongAdder()).sum(), elapsedSeconds)));
+        return results;
+    }
+
+    private Mono<Integer> request(final HttpClient client, final Target target, final SimpleMeterRegistry registry,
+        final Map<String, Timer> timers, final Map<String, LongAdder> errors) {
+        final long start = System.nanoTime();
+        final Timer timer = timers.computeIfAbsent(target.endpoint(), endpoint -> Timer.builder("load.request")
+            .tag("endpoint", endpoint)
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .distributionStatisticExpiry(Duration.ofHours(1))
+            .register(registry));
+        return client.get().uri(target.path())
+            .responseSingle((response, body) -> body.asByteArray()
+                .map(bytes -> response.status().code())
+                .defaultIfEmpty(response.status().code()))
+            .onErrorReturn(-1)
+            .doOnNext(status -> {
+                timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                if (status < 200 || status >= 300) {
+                    errors.computeIfAbsent(target.endpoint(), endpoint -> new LongAdder()).increment();
+                }
+            });
+    }
+
+    private static Result toResult(final String endpoint, final Timer timer, final long errors,
+        final double elapsedSeconds) {
+        final ValueAtPercentile[] percentiles = timer.takeSnapshot().percentileValues();
+        return new Result(endpoint, timer.count(), errors, timer.count() / elapsedSeconds,
+            percentiles[0].value(TimeUnit.MILLISECONDS), percentiles[1].value(TimeUnit.MILLISECONDS),
+            percentiles[2].value(TimeUnit.MILLISECONDS));
+    }
+}
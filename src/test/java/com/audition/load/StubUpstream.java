@@ -0,0 +1,92 @@
+package com.audition.load;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+/*
+In-process stand-in for the jsonplaceholder api. Serves /posts, /posts/{id} and /posts/{id}/comments on a random local
+port with a fixed latency, a share of 503 responses and a configurable payload size. Latency is applied without
+blocking a thread, so the stub itself never becomes the bottleneck of a load test.
+ */
+public class StubUpstream implements AutoCloseable {
+
+    private final Duration latency;
+    private final double errorRate;
+    private final String posts;
+    private final String filler;
+    private final DisposableServer server;
+
+    public StubUpstream(final Duration latency, final double errorRate, final int postCount, final int bodySize) {
+        this.latency = latency;
+        this.errorRate = errorRate;
+        this.filler = "x".repeat(bodySize);
+        this.posts = createPosts(postCount);
+        this.server = HttpServer.create()
+            .host("127.0.0.1")
+            .port(0)
+            .route(routes -> routes
+                .get("/posts", (request, response) -> respond(response, request, r -> posts))
+                .get("/posts/{id}/comments", (request, response) -> respond(response, request,
+                    r -> createComments(r.param("id"))))
+                .get("/posts/{id}", (request, response) -> respond(response, request,
+                    r -> createPost(r.param("id")))))
+            .bindNow();
+    }
+
+    public String getUrl() {
+        return "http://127.0.0.1:" + server.port();
+    }
+
+    @Override
+    public void close() {
+        server.disposeNow();
+    }
+
+    private Publisher<Void> respond(final HttpServerResponse response, final HttpServerRequest request,
+        final Function<HttpServerRequest, String> body) {
+        return Mono.delay(latency).then(Mono.defer(() -> {
+            if (ThreadLocalRandom.current().nextDouble() < errorRate) {
+                return response.status(503).send().then();
+            }
+            return response.header("Content-Type", "application/json")
+                .sendString(Mono.just(body.apply(request)))
+                .then();
+        }));
+    }
+
+    private String createPosts(final int postCount) {
+        final StringBuilder builder = new StringBuilder("[");
+        for (int id = 1; id <= postCount; id++) {
+            if (id > 1) {
+                builder.append(',');
+            }
+            builder.append(createPost(String.valueOf(id)));
+        }
+        return builder.append(']').toString();
+    }
+
+    private String createPost(final String id) {
+        return "{\"userId\":" + (Math.floorMod(id.hashCode(), 10) + 1) + ",\"id\":" + id + ",\"title\":\"title " + id
+            + "\",\"body\":\"" + filler + "\"}";
+    }
+
+    private String createComments(final String postId) {
+        final StringBuilder builder = new StringBuilder("[");
+        for (int id = 1; id <= 5; id++) {
+            if (id > 1) {
+                builder.append(',');
+            }
+            builder.append("{\"postId\":").append(postId).append(",\"id\":").append(id)
+                .append(",\"name\":\"name ").append(id).append("\",\"email\":\"user").append(id)
+                .append("@example.com\",\"body\":\"").append(filler).append("\"}");
+        }
+        return builder.append(']').toString();
+    }
+}
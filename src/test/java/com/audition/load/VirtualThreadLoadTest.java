@@ -0,0 +1,117 @@
+package com.audition.load;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/*
+Compares platform-thread Tomcat workers with virtual threads for /posts/{postId}/comments against the stub upstream.
+Run with ./gradlew loadTest, tune with -Dloadtest.concurrency=1000,5000,10000 -Dloadtest.duration=PT20S
+-Dloadtest.latency=PT0.1S. Virtual threads need a Java 21+ runtime, otherwise both runs use platform threads. The
+application runs in a separate JVM (see ApplicationProcess), its log is next to the report in build/reports/load.
+ */
+@Tag("load")
+class VirtualThreadLoadTest {
+
+    private static final Logger LOG = LoggerFactory.getLogger(VirtualThreadLoadTest.class);
+    private static final String ENDPOINT = "/posts/{postId}/comments";
+    private static final String USERNAME = "admin";
+    private static final String PASSWORD = "admin123";
+
+    @Test
+    void compareVirtualAndPlatformThreads() throws IOException, InterruptedException {
+        final List<Integer> concurrencies = Arrays.stream(
+                System.getProperty("loadtest.concurrency", "1000,5000,10000").split(","))
+            .map(String::trim)
+            .map(Integer::valueOf)
+            .toList();
+        final Duration duration = Duration.parse(System.getProperty("loadtest.duration", "PT20S"));
+        final Duration latency = Duration.parse(System.getProperty("loadtest.latency", "PT0.1S"));
+
+        final Path reportDirectory = Path.of("build", "reports", "load");
+        Files.createDirectories(reportDirectory);
+        final List<String> report = new ArrayList<>();
+        report.add(String.format("%-9s %-12s %10s %10s %10s %10s %14s %14s", "mode", "connections", "requests",
+            "errors", "rps", "p99 ms", "peak heap MB", "peak threads"));
+        try (StubUpstream upstream = new StubUpstream(latency, 0.0, 100, 200)) {
+            for (final boolean virtual : new boolean[]{false, true}) {
+                try (ApplicationProcess application = startApplication(upstream.getUrl(), virtual,
+                    reportDirectory.resolve("virtual-threads-" + (virtual ? "virtual" : "platform") + ".log"))) {
+                    final LoadGenerator loadGenerator = new LoadGenerator(application.getBaseUrl(), USERNAME,
+                        PASSWORD);
+                    for (final int concurrency : concurrencies) {
+                        report.add(measure(application, loadGenerator, virtual, concurrency, duration));
+                    }
+                }
+            }
+        }
+
+        final Path reportFile = reportDirectory.resolve("virtual-threads.txt");
+        Files.write(reportFile, report);
+        LOG.info("Load test report {}:{}{}", reportFile, System.lineSeparator(),
+            String.join(System.lineSeparator(), report));
+        assertTrue(Files.size(reportFile) > 0);
+    }
+
+    // Heap and threads are sampled from the actuator of the application JVM, the generator and stub run in this one.
+    private String measure(final ApplicationProcess application, final LoadGenerator loadGenerator,
+        final boolean virtual, final int concurrency, final Duration duration) {
+        final AtomicLong peakHeap = new AtomicLong();
+        final AtomicLong peakThreads = new AtomicLong();
+        final ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleWithFixedDelay(() -> {
+            try {
+                peakHeap.accumulateAndGet((long) application.metric("jvm.memory.used", "area:heap"), Math::max);
+                peakThreads.accumulateAndGet((long) application.metric("jvm.threads.live"), Math::max);
+            } catch (IOException e) {
+                LOG.warn("Could not sample the application metrics", e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, 0, 200, TimeUnit.MILLISECONDS);
+        try {
+            final LoadGenerator.Result result = loadGenerator.run(concurrency, duration,
+                () -> {
+                    // Random ids keep the post cache cold, so every request waits on the upstream.
+                    final int postId = ThreadLocalRandom.current().nextInt(1, 1_000_000);
+                    return new LoadGenerator.Target(ENDPOINT, "/posts/" + postId + "/comments");
+                }).get(0);
+            return String.format("%-9s %-12d %10d %10d %10.1f %10.1f %14d %14d", virtual ? "virtual" : "platform",
+                concurrency, result.requests(), result.errors(), result.requestsPerSecond(), result.p99(),
+                peakHeap.get() / (1024 * 1024), peakThreads.get());
+        } finally {
+            sampler.shutdownNow();
+        }
+    }
+
+    private ApplicationProcess startApplication(final String upstreamUrl, final boolean virtual, final Path logFile)
+        throws IOException {
+        return new ApplicationProcess(
+            List.of("-Xmx1g"),
+            List.of(
+                "server.tomcat.max-connections=20000",
+                "server.tomcat.accept-count=20000",
+                "spring.application.externalApiUrl=" + upstreamUrl,
+                "application.threads.virtual.enabled=" + virtual,
+                "application.connection.max-connections=20000",
+                "application.connection.max-connections-per-route=20000",
+                "application.tracing.sampling.probability=0.0",
+                "logging.level.root=WARN"),
+            logFile, USERNAME, PASSWORD);
+    }
+}
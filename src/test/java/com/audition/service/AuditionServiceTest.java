@@ -0,0 +1,326 @@
+package com.audition.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.audition.common.exception.SystemException;
+import com.audition.configuration.BatchProperties;
+import com.audition.configuration.UpstreamCacheProperties;
+import com.audition.integration.AuditionIntegrationClient;
+import com.audition.model.AuditionPost;
+import com.audition.model.Comment;
+import com.audition.model.PostResult;
+import com.audition.service.ResponseFreshness.State;
+import com.audition.service.query.PostQuery;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+@ExtendWith(MockitoExtension.class)
+class AuditionServiceTest {
+
+    @Mock
+    AuditionIntegrationClient auditionIntegrationClient;
+
+    private MeterRegistry meterRegistry;
+    private AuditionService auditionService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        auditionService = new AuditionService(auditionIntegrationClient, new UpstreamCacheProperties(),
+            meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void testGetPostsIsServedFromCache() {
+        List<AuditionPost> auditionPosts = List.of(
+            new AuditionPost(1, 1, "Post Title 1", "Post Body 1", new ArrayList<>()));
+        when(auditionIntegrationClient.getPosts()).thenReturn(auditionPosts);
+
+        assertSame(auditionPosts, auditionService.getPosts());
+        assertSame(auditionPosts, auditionService.getPosts());
+
+        verify(auditionIntegrationClient, times(1)).getPosts();
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "upstream.posts").tag("result", "hit")
+            .functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "upstream.posts").tag("result", "miss")
+            .functionCounter().count());
+    }
+
+    @Test
+    void testGetPostsWithQueryUsesIndexedPosts() {
+        List<AuditionPost> auditionPosts = List.of(
+            new AuditionPost(1, 1, "Post Title AAA", "Post Body 1", null),
+            new AuditionPost(1, 2, "Post Title BBB", "Post Body 2", null),
+            new AuditionPost(2, 3, "Post Title AAA", "Post Body 3", null));
+        when(auditionIntegrationClient.getPosts()).thenReturn(auditionPosts);
+
+        List<AuditionPost> result = auditionService.getPosts(PostQuery.of(1, null, "AAA", null));
+
+        assertEquals(1, result.size());
+        assertEquals(1, result.get(0).getId());
+        assertEquals(2, auditionService.getPosts(PostQuery.of(null, null, "AAA", null)).size());
+        verify(auditionIntegrationClient, times(1)).getPosts();
+    }
+
+    @Test
+    void testGetPostByIdIsCachedPerPostId() {
+        AuditionPost auditionPost1 = new AuditionPost(1, 1, "Post Title 1", "Post Body 1", null);
+        AuditionPost auditionPost2 = new AuditionPost(1, 2, "Post Title 2", "Post Body 2", null);
+        when(auditionIntegrationClient.getPostById("1")).thenReturn(auditionPost1);
+        when(auditionIntegrationClient.getPostById("2")).thenReturn(auditionPost2);
+
+        assertSame(auditionPost1, auditionService.getPostById("1"));
+        assertSame(auditionPost2, auditionService.getPostById("2"));
+        assertSame(auditionPost1, auditionService.getPostById("1"));
+
+        verify(auditionIntegrationClient, times(1)).getPostById("1");
+        verify(auditionIntegrationClient, times(1)).getPostById("2");
+    }
+
+    @Test
+    void testGetPostCommentsIsCached() {
+        List<Comment> comments = List.of(new Comment(1, 1, "name", "email.@email.com", "body"));
+        when(auditionIntegrationClient.getPostComments("1")).thenReturn(comments);
+
+        assertSame(comments, auditionService.getPostComments("1"));
+        assertSame(comments, auditionService.getPostComments("1"));
+
+        verify(auditionIntegrationClient, times(1)).getPostComments("1");
+    }
+
+    @Test
+    void testFailedLoadIsNotCached() {
+        AuditionPost auditionPost = new AuditionPost(1, 1, "Post Title 1", "Post Body 1", null);
+        when(auditionIntegrationClient.getPostWithComments("1"))
+            .thenThrow(new SystemException("Cannot find comments for a Post with id 1", "Resource Not Found", 404))
+            .thenReturn(auditionPost);
+
+        SystemException systemException = assertThrows(SystemException.class,
+            () -> auditionService.getPostWithComments("1"));
+        assertEquals(404, systemException.getStatusCode());
+        assertSame(auditionPost, auditionService.getPostWithComments("1"));
+    }
+
+    @Test
+    void testContentVersionIsOnlyKnownForCachedContent() {
+        when(auditionIntegrationClient.getPostById("1"))
+            .thenReturn(new AuditionPost(1, 1, "Post Title 1", "Post Body 1", null));
+        when(auditionIntegrationClient.getPostById("2"))
+            .thenReturn(new AuditionPost(1, 1, "Post Title 1", "Post Body 1", null));
+
+        assertFalse(auditionService.getPostVersion("1").isPresent());
+        auditionService.getPostById("1");
+        auditionService.getPostById("2");
+
+        assertFalse(auditionService.getPostVersion("1").isEmpty());
+        assertEquals(auditionService.getPostVersion("1"), auditionService.getPostVersion("2"));
+        assertFalse(auditionService.getPostCommentsVersion("1").isPresent());
+        verify(auditionIntegrationClient, times(1)).getPostById("1");
+    }
+
+    @Test
+    void testStalePostIsServedWhileRevalidating() {
+        AuditionPost stalePost = new AuditionPost(1, 1, "Post Title 1", "Post Body 1", null);
+        AuditionPost freshPost = new AuditionPost(1, 1, "Post Title 1 updated", "Post Body 1", null);
+        when(auditionIntegrationClient.getPostById("1")).thenReturn(stalePost).thenReturn(freshPost);
+        AtomicLong time = new AtomicLong();
+        List<Runnable> refreshes = new ArrayList<>();
+        AuditionService service = new AuditionService(auditionIntegrationClient, new UpstreamCacheProperties(),
+            meterRegistry, time::get, refreshes::add);
+
+        assertSame(stalePost, service.getPostById("1"));
+        time.addAndGet(Duration.ofMinutes(9).toNanos());
+        startRequest();
+
+        assertSame(stalePost, service.getPostById("1"));
+        assertEquals(State.STALE, ResponseFreshness.current().orElseThrow().getState());
+        assertEquals(540, ResponseFreshness.current().orElseThrow().getAgeSeconds());
+
+        refreshes.forEach(Runnable::run);
+        startRequest();
+        assertSame(freshPost, service.getPostById("1"));
+        assertEquals(State.FRESH, ResponseFreshness.current().orElseThrow().getState());
+    }
+
+    @Test
+    void testStalePostIsServedWhenRevalidationFails() {
+        AuditionPost auditionPost = new AuditionPost(1, 1, "Post Title 1", "Post Body 1", null);
+        when(auditionIntegrationClient.getPostById("1")).thenReturn(auditionPost)
+            .thenThrow(new HttpServerErrorException(HttpStatus.BAD_GATEWAY));
+        AtomicLong time = new AtomicLong();
+        AuditionService service = new AuditionService(auditionIntegrationClient, new UpstreamCacheProperties(),
+            meterRegistry, time::get, task -> { });
+
+        assertSame(auditionPost, service.getPostById("1"));
+        time.addAndGet(Duration.ofMinutes(11).toNanos());
+        startRequest();
+
+        assertSame(auditionPost, service.getPostById("1"));
+        assertEquals(State.REVALIDATION_FAILED, ResponseFreshness.current().orElseThrow().getState());
+    }
+
+    @Test
+    void testNotFoundIsNotMaskedByStalePost() {
+        AuditionPost auditionPost = new AuditionPost(1, 1, "Post Title 1", "Post Body 1", null);
+        when(auditionIntegrationClient.getPostById("1")).thenReturn(auditionPost)
+            .thenThrow(new SystemException("Cannot find a Post with id 1", "Resource Not Found", 404));
+        AtomicLong time = new AtomicLong();
+        AuditionService service = new AuditionService(auditionIntegrationClient, new UpstreamCacheProperties(),
+            meterRegistry, time::get, task -> { });
+
+        assertSame(auditionPost, service.getPostById("1"));
+        time.addAndGet(Duration.ofMinutes(11).toNanos());
+
+        SystemException systemException = assertThrows(SystemException.class, () -> service.getPostById("1"));
+        assertEquals(404, systemException.getStatusCode());
+        assertFalse(ResponseFreshness.current().isPresent());
+    }
+
+    @Test
+    void testGetPostsByIdsKeepsOrderAndReportsErrorsPerId() {
+        AuditionPost post1 = new AuditionPost(1, 1, "Post Title 1", "Post Body 1", null);
+        AuditionPost post3 = new AuditionPost(1, 3, "Post Title 3", "Post Body 3", null);
+        when(auditionIntegrationClient.getPostById("1")).thenReturn(post1);
+        when(auditionIntegrationClient.getPostById("2"))
+            .thenThrow(SystemException.clientError("Cannot find a Post with id 2", "Resource Not Found", 404));
+        when(auditionIntegrationClient.getPostById("3")).thenReturn(post3);
+        auditionService.getPostById("1");
+        startRequest();
+
+        Map<String, PostResult> results = auditionService.getPostsByIds(List.of("3", "2", "1", "3"), false, true);
+
+        assertEquals(List.of("3", "2", "1"), List.copyOf(results.keySet()));
+        assertSame(post3, results.get("3").getPost());
+        assertEquals(404, results.get("2").getStatus());
+        assertEquals("Cannot find a Post with id 2", results.get("2").getDetail());
+        assertEquals("Resource Not Found", results.get("2").getTitle());
+        assertSame(post1, results.get("1").getPost());
+        verify(auditionIntegrationClient, times(1)).getPostById("1");
+        // A response with errors in it is not tagged.
+        assertFalse(ResponseFreshness.current().isPresent());
+    }
+
+    @Test
+    void testGetPostsByIdsVersionMatchesRecordedFreshness() {
+        when(auditionIntegrationClient.getPostById("1"))
+            .thenReturn(new AuditionPost(1, 1, "Post Title 1", "Post Body 1", null));
+        when(auditionIntegrationClient.getPostById("2"))
+            .thenReturn(new AuditionPost(1, 2, "Post Title 2", "Post Body 2", null));
+        assertFalse(auditionService.getPostsByIdsVersion(List.of("2", "1"), false).isPresent());
+        startRequest();
+
+        auditionService.getPostsByIds(List.of("2", "1"), false, true);
+
+        assertEquals(auditionService.getPostsByIdsVersion(List.of("2", "1"), false).getAsLong(),
+            ResponseFreshness.current().orElseThrow().getVersion());
+    }
+
+    @Test
+    void testUntaggedBatchDoesNotRecordFreshness() {
+        when(auditionIntegrationClient.getPostById("1"))
+            .thenReturn(new AuditionPost(1, 1, "Post Title 1", "Post Body 1", null));
+        startRequest();
+
+        auditionService.getPostsByIds(List.of("1"), false, false);
+
+        assertFalse(ResponseFreshness.current().isPresent());
+    }
+
+    @Test
+    void testBatchWorkersDoNotWaitOnTheUpstreamPool() throws InterruptedException {
+        // Sized like the upstream executor: inner calls queue up once both threads are taken.
+        ExecutorService upstreamPool = new ThreadPoolExecutor(2, 2, 0, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+        ExecutorService batchPool = new ThreadPoolExecutor(4, 4, 0, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+        try {
+            BatchProperties batchProperties = new BatchProperties();
+            batchProperties.setMaxConcurrency(4);
+            AuditionService service = new AuditionService(auditionIntegrationClient, new UpstreamCacheProperties(),
+                meterRegistry, Ticker.systemTicker(), Runnable::run, batchProperties, batchPool);
+            when(auditionIntegrationClient.getPostWithComments(anyString())).thenAnswer(invocation -> {
+                // Post and comments are fanned out on the upstream pool and joined, as the client does.
+                int id = Integer.parseInt(invocation.getArgument(0));
+                CompletableFuture<List<Comment>> comments = CompletableFuture.supplyAsync(List::of, upstreamPool);
+                CompletableFuture<String> title = CompletableFuture.supplyAsync(() -> "Post Title " + id,
+                    upstreamPool);
+                return new AuditionPost(1, id, title.join(), "Post Body", comments.join());
+            });
+
+            Map<String, PostResult> results = assertTimeoutPreemptively(Duration.ofSeconds(10),
+                () -> service.getPostsByIds(List.of("1", "2", "3", "4", "5", "6", "7", "8"), true, true));
+
+            assertEquals(8, results.size());
+            results.values().forEach(result -> assertEquals(200, result.getStatus()));
+        } finally {
+            upstreamPool.shutdownNow();
+            batchPool.shutdownNow();
+            batchPool.awaitTermination(1, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void testSlowIdsAreReportedAsTimedOut() throws InterruptedException {
+        ExecutorService batchPool = new ThreadPoolExecutor(2, 2, 0, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            BatchProperties batchProperties = new BatchProperties();
+            batchProperties.setTimeout(Duration.ofMillis(100));
+            AuditionService service = new AuditionService(auditionIntegrationClient, new UpstreamCacheProperties(),
+                meterRegistry, Ticker.systemTicker(), Runnable::run, batchProperties, batchPool);
+            when(auditionIntegrationClient.getPostById("1")).thenAnswer(invocation -> {
+                release.await(5, TimeUnit.SECONDS);
+                return new AuditionPost(1, 1, "Post Title 1", "Post Body 1", null);
+            });
+            when(auditionIntegrationClient.getPostById("2"))
+                .thenReturn(new AuditionPost(1, 2, "Post Title 2", "Post Body 2", null));
+
+            Map<String, PostResult> results = service.getPostsByIds(List.of("1", "2"), false, true);
+
+            assertEquals(504, results.get("1").getStatus());
+            assertEquals(200, results.get("2").getStatus());
+        } finally {
+            release.countDown();
+            batchPool.shutdownNow();
+            batchPool.awaitTermination(1, TimeUnit.SECONDS);
+        }
+    }
+
+    private static void startRequest() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+}
@@ -0,0 +1,110 @@
+package com.audition.service.query;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.audition.model.AuditionPost;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class PostQueryTest {
+
+    private static final List<AuditionPost> POSTS = List.of(
+        new AuditionPost(1, 1, "Quick brown fox", "jumps over the lazy dog", null),
+        new AuditionPost(1, 2, "Lazy afternoon", "nothing happens here at all", null),
+        new AuditionPost(2, 3, "Brown bears", "live in the forest and eat berries", null),
+        new AuditionPost(3, 4, null, null, null));
+
+    @Test
+    void testUnrestrictedQueryReturnsSameList() {
+        PostQuery query = PostQuery.of(null, null, null, null);
+        assertTrue(query.isUnrestricted());
+        assertSame(POSTS, query.filter(POSTS));
+    }
+
+    @Test
+    void testExactIdStopsAtFirstMatch() {
+        PostQuery query = PostQuery.of(null, 3, null, null);
+        assertEquals(3, query.getExactId().getAsInt());
+        List<AuditionPost> result = query.filter(POSTS);
+        assertEquals(1, result.size());
+        assertEquals(3, result.get(0).getId());
+    }
+
+    @Test
+    void testCombinedFilters() {
+        assertEquals(1, PostQuery.of(1, null, "fox", "lazy").filter(POSTS).size());
+        assertEquals(0, PostQuery.of(2, null, "fox", null).filter(POSTS).size());
+    }
+
+    @Test
+    void testNullTextDoesNotMatch() {
+        assertEquals(0, PostQuery.of(3, null, "a", null).filter(POSTS).size());
+    }
+
+    @Test
+    void testLongNeedleUsesHorspool() {
+        assertEquals(1, PostQuery.of(null, null, null, "the forest and eat").filter(POSTS).size());
+        assertEquals(0, PostQuery.of(null, null, null, "the forest and eats").filter(POSTS).size());
+    }
+
+    @Test
+    void testRangePrefixAndIgnoreCase() {
+        PostQuery query = PostQuery.builder()
+            .where(PostConditions.between(NumericField.ID, 2, 4))
+            .where(PostConditions.startsWith(TextField.TITLE, "BROWN", true))
+            .build();
+        List<AuditionPost> result = query.filter(POSTS);
+        assertEquals(1, result.size());
+        assertEquals(3, result.get(0).getId());
+
+        PostQuery ignoreCase = PostQuery.builder()
+            .where(PostConditions.contains(TextField.BODY, "LAZY DOG", true))
+            .build();
+        assertTrue(ignoreCase.matches(POSTS.get(0)));
+        assertFalse(ignoreCase.matches(POSTS.get(1)));
+    }
+
+    @Test
+    void testIndexedFilterMatchesScan() {
+        PostIndex index = PostIndex.of(POSTS);
+        List<PostQuery> queries = List.of(
+            PostQuery.of(1, null, null, null),
+            PostQuery.of(null, 2, null, null),
+            PostQuery.of(null, null, "rown", null),
+            PostQuery.of(null, null, "Brown", null),
+            PostQuery.of(1, null, null, "lazy"),
+            PostQuery.of(null, null, "fo", null),
+            PostQuery.of(null, 42, null, null),
+            PostQuery.of(null, null, null, "zebra"));
+        for (PostQuery query : queries) {
+            assertEquals(query.filter(POSTS), query.filter(index));
+        }
+        assertEquals("Brown bears", index.getById(3).getTitle());
+    }
+
+    @Test
+    void testCaseFoldingIsTheSameForScanAndIndex() {
+        List<AuditionPost> posts = List.of(
+            new AuditionPost(1, 1, "\u017Fea crossing", "long s", null),
+            new AuditionPost(1, 2, "Philosophy", "\u03A3\u039F\u03A6\u039F\u03A3 of the ancients", null),
+            new AuditionPost(2, 3, "\u0130stanbul nights", "dotted capital i", null),
+            new AuditionPost(2, 4, "Sea breeze", "plain ascii", null));
+        PostIndex index = PostIndex.of(posts);
+        List<PostCondition> conditions = List.of(
+            PostConditions.contains(TextField.TITLE, "SEA", true),
+            PostConditions.startsWith(TextField.TITLE, "SEA", true),
+            PostConditions.contains(TextField.BODY, "\u03C3\u03BF\u03C6\u03BF\u03C2", true),
+            PostConditions.startsWith(TextField.TITLE, "ist", true),
+            PostConditions.contains(TextField.TITLE, "\u017Fea", false),
+            PostConditions.startsWith(TextField.TITLE, "sea", false));
+        List<Integer> expectedSizes = List.of(2, 2, 1, 1, 1, 0);
+        for (int i = 0; i < conditions.size(); i++) {
+            PostQuery query = PostQuery.builder().where(conditions.get(i)).build();
+            assertEquals(expectedSizes.get(i), query.filter(posts).size());
+            assertEquals(query.filter(posts), query.filter(index));
+        }
+    }
+}
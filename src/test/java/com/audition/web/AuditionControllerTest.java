@@ -1,20 +1,38 @@
 package com.audition.web;
 
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import com.audition.common.exception.SystemException;
+import com.audition.configuration.BatchProperties;
 import com.audition.model.AuditionPost;
 import com.audition.model.Comment;
+import com.audition.model.PostBatch;
+import com.audition.model.PostResult;
 import com.audition.service.AuditionService;
+import com.audition.service.query.PostIndex;
+import com.audition.service.query.PostQuery;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.stubbing.Answer;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
 
 @SpringBootTest
 class AuditionControllerTest {
@@ -25,14 +43,21 @@ class AuditionControllerTest {
     @InjectMocks
     AuditionController auditionController;
 
+    @Spy
+    BatchProperties batchProperties = new BatchProperties();
+
+    @Spy
+    ObjectMapper objectMapper = new ObjectMapper()
+        .setFilterProvider(new SimpleFilterProvider().setFailOnUnknownId(false));
+
     private final static String INVALID_NUMBER = "xxxx";
 
     @Test
     void testGetPosts() {
         List<AuditionPost> auditionPosts = List.of(
             new AuditionPost(1, 1, "Post Title 1", "Post Body 1", new ArrayList<>()));
-        when(auditionService.getPosts()).thenReturn(auditionPosts);
-        List<AuditionPost> filteredAuditionPosts = auditionController.getPosts(1, null, null, null);
+        when(auditionService.getPosts(any())).thenAnswer(filterPosts(auditionPosts));
+        List<AuditionPost> filteredAuditionPosts = auditionController.getPosts(1, null, null, null, null, null, null);
         Assertions.assertEquals(1, filteredAuditionPosts.size());
     }
 
@@ -41,8 +66,8 @@ class AuditionControllerTest {
         List<AuditionPost> auditionPosts = List.of(
             new AuditionPost(1, 1, "Post Title 2", "Post Body 2", new ArrayList<>()),
             new AuditionPost(2, 2, "Post Title 3", "Post Body 3", new ArrayList<>()));
-        when(auditionService.getPosts()).thenReturn(auditionPosts);
-        List<AuditionPost> filteredAuditionPosts = auditionController.getPosts(1, null, null, null);
+        when(auditionService.getPosts(any())).thenAnswer(filterPosts(auditionPosts));
+        List<AuditionPost> filteredAuditionPosts = auditionController.getPosts(1, null, null, null, null, null, null);
         Assertions.assertEquals(1, filteredAuditionPosts.size());
     }
 
@@ -51,8 +76,8 @@ class AuditionControllerTest {
         List<AuditionPost> auditionPosts = List.of(
             new AuditionPost(1, 1, "Post Title 4", "Post Body 4", new ArrayList<>()),
             new AuditionPost(2, 2, "Post Title 5", "Post Body 5", new ArrayList<>()));
-        when(auditionService.getPosts()).thenReturn(auditionPosts);
-        List<AuditionPost> filteredAuditionPosts = auditionController.getPosts(null, 1, null, null);
+        when(auditionService.getPosts(any())).thenAnswer(filterPosts(auditionPosts));
+        List<AuditionPost> filteredAuditionPosts = auditionController.getPosts(null, 1, null, null, null, null, null);
         Assertions.assertEquals(1, filteredAuditionPosts.size());
     }
 
@@ -61,8 +86,8 @@ class AuditionControllerTest {
         List<AuditionPost> auditionPosts = List.of(
             new AuditionPost(1, 1, "Post Title AAA", "Post Body A", new ArrayList<>()),
             new AuditionPost(2, 2, "Post Title BBB", "Post Body B", new ArrayList<>()));
-        when(auditionService.getPosts()).thenReturn(auditionPosts);
-        List<AuditionPost> filteredAuditionPosts = auditionController.getPosts(null, null, "AAA", null);
+        when(auditionService.getPosts(any())).thenAnswer(filterPosts(auditionPosts));
+        List<AuditionPost> filteredAuditionPosts = auditionController.getPosts(null, null, "AAA", null, null, null, null);
         Assertions.assertEquals(1, filteredAuditionPosts.size());
     }
 
@@ -71,8 +96,8 @@ class AuditionControllerTest {
         List<AuditionPost> auditionPosts = List.of(
             new AuditionPost(1, 1, "Post Title A", "Post Body AAA", new ArrayList<>()),
             new AuditionPost(2, 2, "Post Title B", "Post Body BBB", new ArrayList<>()));
-        when(auditionService.getPosts()).thenReturn(auditionPosts);
-        List<AuditionPost> filteredAuditionPosts = auditionController.getPosts(null, null, null, "BBB");
+        when(auditionService.getPosts(any())).thenAnswer(filterPosts(auditionPosts));
+        List<AuditionPost> filteredAuditionPosts = auditionController.getPosts(null, null, null, "BBB", null, null, null);
         Assertions.assertEquals(1, filteredAuditionPosts.size());
     }
 
@@ -85,11 +110,47 @@ class AuditionControllerTest {
             new AuditionPost(13, 13, "Post Title 13", "Post Body 13", new ArrayList<>()),
             new AuditionPost(14, 14, "Post Title 14", "Post Body 14", new ArrayList<>()));
 
-        when(auditionService.getPosts()).thenReturn(auditionPosts);
-        List<AuditionPost> filteredAuditionPosts = auditionController.getPosts(1, 1, "AAAA", "BBBB");
+        when(auditionService.getPosts(any())).thenAnswer(filterPosts(auditionPosts));
+        List<AuditionPost> filteredAuditionPosts = auditionController.getPosts(1, 1, "AAAA", "BBBB", null, null, null);
         Assertions.assertEquals(1, filteredAuditionPosts.size());
     }
 
+    @Test
+    void testGetPostsPaged() {
+        List<AuditionPost> auditionPosts = List.of(
+            new AuditionPost(1, 1, "Post Title 1", "Post Body 1", new ArrayList<>()),
+            new AuditionPost(1, 2, "Post Title 2", "Post Body 2", new ArrayList<>()),
+            new AuditionPost(1, 3, "Post Title 3", "Post Body 3", new ArrayList<>()),
+            new AuditionPost(1, 4, "Post Title 4", "Post Body 4", new ArrayList<>()),
+            new AuditionPost(1, 5, "Post Title 5", "Post Body 5", new ArrayList<>()));
+        when(auditionService.getPosts(any())).thenAnswer(filterPosts(auditionPosts));
+
+        List<AuditionPost> secondPage = auditionController.getPosts(1, null, null, null, 1, 2, null);
+        Assertions.assertEquals(List.of(3, 4), secondPage.stream().map(AuditionPost::getId).toList());
+        List<AuditionPost> lastPage = auditionController.getPosts(1, null, null, null, 2, 2, null);
+        Assertions.assertEquals(List.of(5), lastPage.stream().map(AuditionPost::getId).toList());
+        Assertions.assertTrue(auditionController.getPosts(1, null, null, null, 3, 2, null).isEmpty());
+        List<AuditionPost> limited = auditionController.getPosts(1, null, null, null, null, null, 3);
+        Assertions.assertEquals(List.of(1, 2, 3), limited.stream().map(AuditionPost::getId).toList());
+        List<AuditionPost> limitedPage = auditionController.getPosts(1, null, null, null, 0, 2, 1);
+        Assertions.assertEquals(List.of(1), limitedPage.stream().map(AuditionPost::getId).toList());
+        List<AuditionPost> maxLimit = auditionController.getPosts(1, null, null, null, 1, 2, Integer.MAX_VALUE);
+        Assertions.assertEquals(List.of(3, 4), maxLimit.stream().map(AuditionPost::getId).toList());
+    }
+
+    @Test
+    void testGetPostsInvalidPage() {
+        when(auditionService.getPosts(any())).thenReturn(List.of());
+        SystemException systemException = assertThrows(SystemException.class,
+            () -> auditionController.getPosts(null, null, null, null, -1, 10, null));
+        Assertions.assertEquals(400, systemException.getStatusCode());
+        assertThrows(SystemException.class, () -> auditionController.getPosts(null, null, null, null, 0, 0, null));
+        SystemException pageWithoutSize = assertThrows(SystemException.class,
+            () -> auditionController.getPosts(null, null, null, null, 1, null, null));
+        Assertions.assertEquals(400, pageWithoutSize.getStatusCode());
+        Assertions.assertEquals("Bad Request", pageWithoutSize.getTitle());
+    }
+
     @Test
     void testGetPost() {
         AuditionPost auditionPost = new AuditionPost(1, 1, "Post Title 15", "Post Body 15", new ArrayList<>());
@@ -144,20 +205,110 @@ class AuditionControllerTest {
             new Comment(1, 2, "name2", "email2.@email.com", "body2"));
         when(auditionService.getPostComments("1")).thenReturn(comments);
 
-        List<Comment> resultComments = auditionController.getPostComments("1");
+        List<Comment> resultComments = auditionController.getPostComments("1", null, null, null);
         Assertions.assertEquals(2, resultComments.size());
         Assertions.assertEquals(1, resultComments.get(0).getId());
         Assertions.assertEquals(2, resultComments.get(1).getId());
     }
 
+    @Test
+    void testGetPostCommentsPaged() {
+        List<Comment> comments = List.of(new Comment(1, 1, "name", "email.@email.com", "body"),
+            new Comment(1, 2, "name2", "email2.@email.com", "body2"),
+            new Comment(1, 3, "name3", "email3.@email.com", "body3"));
+        when(auditionService.getPostComments("1")).thenReturn(comments);
+
+        List<Comment> resultComments = auditionController.getPostComments("1", 1, 2, null);
+        Assertions.assertEquals(1, resultComments.size());
+        Assertions.assertEquals(3, resultComments.get(0).getId());
+        Assertions.assertSame(comments, auditionController.getPostComments("1", null, null, 5));
+    }
+
+    @Test
+    void testGetPostsBatch() {
+        AuditionPost auditionPost = new AuditionPost(1, 1, "Post Title 1", "Post Body 1", null);
+        when(auditionService.getPostsByIds(List.of("2", "1"), true, false)).thenReturn(Map.of(
+            "1", PostResult.found("1", auditionPost),
+            "2", PostResult.failed("2", 404, "Resource Not Found", "Cannot find comments for a Post with id 2")));
+
+        List<PostResult> results = auditionController.getPostsBatch(List.of("2", INVALID_NUMBER, "1"), "comments");
+
+        Assertions.assertEquals(List.of("2", INVALID_NUMBER, "1"), results.stream().map(PostResult::getId).toList());
+        Assertions.assertEquals(404, results.get(0).getStatus());
+        Assertions.assertEquals(400, results.get(1).getStatus());
+        Assertions.assertEquals("Invalid postId: xxxx, Invalid number For input string: \"xxxx\"",
+            results.get(1).getDetail());
+        Assertions.assertSame(auditionPost, results.get(2).getPost());
+    }
+
+    @Test
+    void testGetPostsBatchRejectsTooManyIds() {
+        batchProperties.setMaxIds(2);
+        SystemException systemException = assertThrows(SystemException.class,
+            () -> auditionController.postPostsBatch(new PostBatch(List.of("1", "2", "3"), null)));
+        Assertions.assertEquals(400, systemException.getStatusCode());
+        verifyNoInteractions(auditionService);
+    }
+
     @Test
     void testGetPostCommentsExceptionScenario() {
         when(auditionService.getPostComments(anyString())).thenThrow(
             new SystemException(String.format("Invalid postId: %s", INVALID_NUMBER)));
 
         SystemException systemException = assertThrows(SystemException.class,
-            () -> auditionController.getPostComments(INVALID_NUMBER));
+            () -> auditionController.getPostComments(INVALID_NUMBER, null, null, null));
         Assertions.assertEquals("Invalid postId: xxxx, Invalid number For input string: \"xxxx\"",
             systemException.getMessage());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testStreamPosts() throws IOException {
+        List<AuditionPost> auditionPosts = List.of(
+            new AuditionPost(1, 1, "Post Title 1", "Post Body 1", new ArrayList<>()),
+            new AuditionPost(2, 2, "Post Title 2", "Post Body 2", new ArrayList<>()));
+        doAnswer(invocation -> {
+            final Predicate<AuditionPost> filter = invocation.getArgument(0);
+            final Consumer<AuditionPost> consumer = invocation.getArgument(1);
+            auditionPosts.stream().filter(filter).forEach(consumer);
+            return null;
+        }).when(auditionService).streamPosts(any(), any());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        auditionController.streamPosts(2, null, null, null, response);
+
+        Assertions.assertEquals("application/json", response.getContentType());
+        AuditionPost[] streamed = objectMapper.readValue(response.getContentAsByteArray(), AuditionPost[].class);
+        Assertions.assertEquals(1, streamed.length);
+        Assertions.assertEquals(2, streamed[0].getId());
+    }
+
+    @Test
+    void testStreamPostsWithoutMatches() throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        auditionController.streamPosts(3, null, null, null, response);
+
+        Assertions.assertEquals("[]", response.getContentAsString());
+    }
+
+    @Test
+    void testStreamPostsUpstreamFailureLeavesResponseUntouched() {
+        doThrow(new SystemException("Upstream failed", "Bad Gateway", 502))
+            .when(auditionService).streamPosts(any(), any());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        SystemException systemException = assertThrows(SystemException.class,
+            () -> auditionController.streamPosts(null, null, null, null, response));
+
+        Assertions.assertEquals(502, systemException.getStatusCode());
+        Assertions.assertEquals(0, response.getContentAsByteArray().length);
+        Assertions.assertFalse(response.isCommitted());
+        Assertions.assertNull(response.getContentType());
+    }
+
+    // The service applies the query compiled by the controller to its indexed posts.
+    private static Answer<List<AuditionPost>> filterPosts(final List<AuditionPost> auditionPosts) {
+        final PostIndex postIndex = PostIndex.of(auditionPosts);
+        return invocation -> invocation.<PostQuery>getArgument(0).filter(postIndex);
+    }
+}
@@ -0,0 +1,130 @@
+package com.audition.web;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.audition.configuration.UpstreamCacheProperties;
+import com.audition.configuration.WebServiceConfiguration;
+import com.audition.integration.AuditionIntegrationClient;
+import com.audition.model.AuditionPost;
+import com.audition.service.AuditionService;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.server.Compression;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+class CachedJsonHttpMessageConverterTest {
+
+    private static final String POST_JSON = "{\"userId\":1,\"id\":1,\"title\":\"title\",\"body\":\"body\"}";
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CachedJsonHttpMessageConverter converter = converter(false);
+    private AuditionService auditionService;
+    private AuditionPost cachedPost;
+
+    @BeforeEach
+    void setUp() {
+        final AuditionIntegrationClient client = mock(AuditionIntegrationClient.class);
+        cachedPost = new AuditionPost(1, 1, "title", "body", null);
+        when(client.getPostById("1")).thenReturn(cachedPost);
+        auditionService = new AuditionService(client, new UpstreamCacheProperties(), meterRegistry);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void testCachedBodyIsEncodedOnce() throws IOException {
+        Assertions.assertEquals(POST_JSON, write(auditionService.getPostById("1")));
+
+        // The second response reuses the bytes, a change to the shared object is not written again.
+        cachedPost.setTitle("changed");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        Assertions.assertEquals(POST_JSON, write(auditionService.getPostById("1")));
+    }
+
+    @Test
+    void testOtherBodiesAreEncodedPerRequest() throws IOException {
+        auditionService.getPostById("1");
+        final AuditionPost otherPost = new AuditionPost(2, 2, "other", "post", null);
+
+        Assertions.assertEquals("{\"userId\":2,\"id\":2,\"title\":\"other\",\"body\":\"post\"}", write(otherPost));
+    }
+
+    @Test
+    void testProjectedBodyIsEncodedPerRequest() throws IOException {
+        final MappingJacksonValue value = new MappingJacksonValue(auditionService.getPostById("1"));
+        value.setFilters(new SimpleFilterProvider().addFilter(AuditionPost.FIELDS_FILTER,
+            SimpleBeanPropertyFilter.filterOutAllExcept("id")));
+
+        Assertions.assertEquals("{\"id\":1}", write(value));
+    }
+
+    @Test
+    void testCachedBodyIsGzippedOnce() throws IOException {
+        final CachedJsonHttpMessageConverter gzipConverter = converter(true);
+        final MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "br;q=1.0, gzip;q=0.8");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        final AuditionPost post = auditionService.getPostById("1");
+
+        final MockHttpOutputMessage first = new MockHttpOutputMessage();
+        first.getHeaders().setETag("\"abc\"");
+        gzipConverter.write(post, MediaType.APPLICATION_JSON, first);
+        final MockHttpOutputMessage second = new MockHttpOutputMessage();
+        gzipConverter.write(post, MediaType.APPLICATION_JSON, second);
+
+        Assertions.assertEquals("gzip", first.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        Assertions.assertEquals("W/\"abc\"", first.getHeaders().getETag());
+        try (InputStream json = new GZIPInputStream(new ByteArrayInputStream(first.getBodyAsBytes()))) {
+            Assertions.assertEquals(POST_JSON, new String(json.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        Assertions.assertArrayEquals(first.getBodyAsBytes(), second.getBodyAsBytes());
+        Assertions.assertEquals(1L, meterRegistry.get(CachedJsonHttpMessageConverter.COMPRESSION_TIME_METER).timer()
+            .count());
+    }
+
+    @Test
+    void testAcceptsGzip() {
+        Assertions.assertTrue(CachedJsonHttpMessageConverter.acceptsGzip("gzip, deflate, br"));
+        Assertions.assertTrue(CachedJsonHttpMessageConverter.acceptsGzip("*"));
+        Assertions.assertFalse(CachedJsonHttpMessageConverter.acceptsGzip("gzip;q=0"));
+        Assertions.assertFalse(CachedJsonHttpMessageConverter.acceptsGzip("identity"));
+        Assertions.assertFalse(CachedJsonHttpMessageConverter.acceptsGzip(null));
+    }
+
+    private CachedJsonHttpMessageConverter converter(final boolean compress) {
+        final Compression compression = new Compression();
+        compression.setEnabled(compress);
+        compression.setMinResponseSize(DataSize.ofBytes(1));
+        return new CachedJsonHttpMessageConverter(new WebServiceConfiguration().objectMapper(), compression,
+            meterRegistry);
+    }
+
+    private String write(final Object body) throws IOException {
+        final MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+        converter.write(body, MediaType.APPLICATION_JSON, outputMessage);
+        return outputMessage.getBodyAsString();
+    }
+}
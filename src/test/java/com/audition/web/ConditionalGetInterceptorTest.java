@@ -0,0 +1,92 @@
+package com.audition.web;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import com.audition.configuration.HttpCacheProperties;
+import com.audition.service.AuditionService;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+class ConditionalGetInterceptorTest {
+
+    private final AuditionService auditionService = mock(AuditionService.class);
+    private final ConditionalGetInterceptor interceptor =
+        new ConditionalGetInterceptor(auditionService, new HttpCacheProperties());
+
+    @Test
+    void testMatchingEntityTagIsNotModified() {
+        when(auditionService.getPostVersion("1")).thenReturn(OptionalLong.of(0xabcL));
+        final MockHttpServletRequest request = request(ConditionalGetInterceptor.POST_PATTERN, "\"abc\"");
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+
+        Assertions.assertFalse(interceptor.preHandle(request, response, new Object()));
+        Assertions.assertEquals(304, response.getStatus());
+        Assertions.assertEquals("\"abc\"", response.getHeader(HttpHeaders.ETAG));
+        Assertions.assertEquals("max-age=30, private", response.getHeader(HttpHeaders.CACHE_CONTROL));
+    }
+
+    @Test
+    void testChangedContentIsHandled() {
+        when(auditionService.getPostCommentsVersion("1")).thenReturn(OptionalLong.of(0xabdL));
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+
+        Assertions.assertTrue(interceptor.preHandle(request(ConditionalGetInterceptor.COMMENTS_PATTERN, "\"abc\""),
+            response, new Object()));
+        Assertions.assertEquals(200, response.getStatus());
+    }
+
+    @Test
+    void testNothingCachedIsHandled() {
+        when(auditionService.getPostsVersion()).thenReturn(OptionalLong.empty());
+
+        Assertions.assertTrue(interceptor.preHandle(request(ConditionalGetInterceptor.POSTS_PATTERN, "\"abc\""),
+            new MockHttpServletResponse(), new Object()));
+    }
+
+    @Test
+    void testUnconditionalRequestIsHandled() {
+        Assertions.assertTrue(interceptor.preHandle(request(ConditionalGetInterceptor.POST_PATTERN, null),
+            new MockHttpServletResponse(), new Object()));
+        verifyNoMoreInteractions(auditionService);
+    }
+
+    @Test
+    void testBatchOfCachedPostsIsNotModified() {
+        when(auditionService.getPostsByIdsVersion(List.of("2", "1"), true)).thenReturn(OptionalLong.of(0xabcL));
+        final MockHttpServletRequest request = request(ConditionalGetInterceptor.BATCH_PATTERN, "\"abc\"");
+        request.setParameter("ids", "2, 1");
+        request.setParameter("include", "comments");
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+
+        Assertions.assertFalse(interceptor.preHandle(request, response, new Object()));
+        Assertions.assertEquals(304, response.getStatus());
+    }
+
+    @Test
+    void testBatchWithInvalidIdIsHandled() {
+        final MockHttpServletRequest request = request(ConditionalGetInterceptor.BATCH_PATTERN, "\"abc\"");
+        request.setParameter("ids", "1,xxxx");
+
+        Assertions.assertTrue(interceptor.preHandle(request, new MockHttpServletResponse(), new Object()));
+        verifyNoMoreInteractions(auditionService);
+    }
+
+    private static MockHttpServletRequest request(final String pattern, final String ifNoneMatch) {
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", pattern.replace("{postId}", "1"));
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, pattern);
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of("postId", "1"));
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return request;
+    }
+}
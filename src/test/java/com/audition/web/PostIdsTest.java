@@ -0,0 +1,46 @@
+package com.audition.web;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.audition.common.exception.SystemException;
+import org.junit.jupiter.api.Test;
+
+class PostIdsTest {
+
+    @Test
+    void testAcceptsWhatIntegerValueOfAccepts() {
+        for (final String value : new String[]{"1", "+1", "-1", "0007", "2147483647", "-2147483648", "١٢",
+            "2147483648", "-2147483649", "99999999999", "", "+", "-", "1a", "1.0", " 1", "0x1"}) {
+            assertEquals(parses(value), PostIds.isInteger(value), value);
+        }
+    }
+
+    @Test
+    void testInvalidIdIsReportedWithoutStackTrace() {
+        final SystemException exception = assertThrows(SystemException.class, () -> PostIds.validate("xxxx"));
+        assertEquals("Invalid postId: xxxx, Invalid number For input string: \"xxxx\"", exception.getMessage());
+        assertEquals("Bad Request", exception.getTitle());
+        assertEquals(400, exception.getStatusCode());
+        assertEquals(0, exception.getStackTrace().length);
+    }
+
+    @Test
+    void testMessageMatchesNumberFormatException() {
+        final NumberFormatException nfe = assertThrows(NumberFormatException.class,
+            () -> Integer.valueOf("2147483648"));
+        final SystemException exception = assertThrows(SystemException.class,
+            () -> PostIds.validate("2147483648"));
+        assertTrue(exception.getMessage().endsWith(nfe.getMessage()));
+    }
+
+    private static boolean parses(final String value) {
+        try {
+            Integer.valueOf(value);
+            return true;
+        } catch (final NumberFormatException e) {
+            return false;
+        }
+    }
+}
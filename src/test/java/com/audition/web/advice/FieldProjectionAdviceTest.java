@@ -0,0 +1,64 @@
+package com.audition.web.advice;
+
+import com.audition.configuration.WebServiceConfiguration;
+import com.audition.model.AuditionPost;
+import com.audition.model.Comment;
+import com.audition.model.PostResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+class FieldProjectionAdviceTest {
+
+    private final ObjectMapper objectMapper = new WebServiceConfiguration().objectMapper();
+    private final FieldProjectionAdvice advice = new FieldProjectionAdvice();
+
+    @Test
+    void testWritesAllFieldsWithoutProjection() throws Exception {
+        final AuditionPost post = new AuditionPost(1, 2, "title", "body", null);
+        Assertions.assertEquals("{\"userId\":1,\"id\":2,\"title\":\"title\",\"body\":\"body\"}",
+            objectMapper.writeValueAsString(post));
+    }
+
+    @Test
+    void testProjectsPostFields() throws Exception {
+        final AuditionPost post = new AuditionPost(1, 2, "title", "body",
+            List.of(new Comment(2, 3, "name", "email", "text")));
+        final MappingJacksonValue value = project(post, " id, comments ");
+        Assertions.assertEquals(
+            "{\"id\":2,\"comments\":[{\"postId\":2,\"id\":3,\"name\":\"name\",\"email\":\"email\",\"body\":\"text\"}]}",
+            objectMapper.writer(value.getFilters()).writeValueAsString(value.getValue()));
+    }
+
+    @Test
+    void testProjectsCommentFields() throws Exception {
+        final MappingJacksonValue value = project(List.of(new Comment(2, 3, "name", "email", "text")), "email");
+        Assertions.assertEquals("[{\"email\":\"email\"}]",
+            objectMapper.writer(value.getFilters()).writeValueAsString(value.getValue()));
+    }
+
+    @Test
+    void testBatchResultsAreNotProjected() throws Exception {
+        final MappingJacksonValue value = project(
+            List.of(PostResult.found("2", new AuditionPost(1, 2, "title", "body", null))), "id");
+        Assertions.assertNull(value.getFilters());
+        Assertions.assertEquals(
+            "[{\"id\":\"2\",\"status\":200,\"post\":{\"userId\":1,\"id\":2,\"title\":\"title\","
+                + "\"body\":\"body\"}}]",
+            objectMapper.writeValueAsString(value.getValue()));
+    }
+
+    private MappingJacksonValue project(final Object body, final String fields) {
+        final MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setParameter(FieldProjectionAdvice.FIELDS_PARAM, fields);
+        final MappingJacksonValue value = new MappingJacksonValue(body);
+        advice.beforeBodyWriteInternal(value, MediaType.APPLICATION_JSON, null, new ServletServerHttpRequest(request));
+        return value;
+    }
+}